@@ -1,7 +1,12 @@
+import controllers.AuthController;
+import controllers.EmployeeController;
 import models.Database;
+import models.PasswordHasher;
+import models.Repositories;
 import views.LoginView;
 
 import javax.swing.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  ** Clase principal que inicia la aplicación del Sistema de Gestión de Vacaciones.
@@ -16,6 +21,8 @@ import javax.swing.*;
  */
 
 public class App {
+
+    private static final AtomicBoolean shutdownHookRegistered = new AtomicBoolean(false);
     
     /**
      * Punto de entrada principal de la aplicación.
@@ -57,10 +64,23 @@ public class App {
 
     /**
      * Inicializa la base de datos y crea las tablas necesarias.
+     * Con {@code -Dvacation.storage=memory} no se usa la base de datos.
      */
     static void initializeDatabase() {
+        // Almacenamiento en memoria: no se abre ningún archivo
+        if (Repositories.getBackend() == Repositories.Backend.MEMORY) {
+            System.out.println("Almacenamiento en memoria: los datos se perderán al salir.");
+            // Sin tabla settings: el costo de BCrypt se calibra en cada inicio
+            Integer cost = Integer.getInteger("vacation.bcrypt.cost");
+            PasswordHasher.setCost(cost != null ? cost : PasswordHasher.calibrate(
+                Long.getLong("vacation.bcrypt.targetMs", PasswordHasher.DEFAULT_TARGET_MILLIS)));
+            return;
+        }
         try {
             Database.initialize();
+            // Advertir si alguna consulta de empleados no aprovecha los índices
+            EmployeeController.verifyQueryPlans();
+            registerShutdownHook();
             System.out.println("Base de datos inicializada correctamente.");
         } catch (Exception e) {
             JOptionPane.showMessageDialog(
@@ -72,4 +92,23 @@ public class App {
             System.exit(1); // Salir si no se puede inicializar la BD
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Registra, una sola vez aunque se inicialice la base de datos de nuevo,
+     * el hook que cierra las conexiones del pool al salir de la aplicación
+     * (antes se confirman las escrituras asíncronas pendientes).
+     *
+     * @return true si se registró en esta llamada
+     */
+    static boolean registerShutdownHook() {
+        if (!shutdownHookRegistered.compareAndSet(false, true)) {
+            return false;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            EmployeeController.shutdownWriteQueue();
+            AuthController.shutdownHashingExecutor();
+            Database.shutdown();
+        }, "db-shutdown"));
+        return true;
+    }
+}
@@ -1,11 +1,25 @@
 package controllers;
 
+import models.PasswordHasher;
+import models.Repositories;
 import models.User;
-import models.Database;
-import java.sql.*;
-import java.util.ArrayList;
+import models.UserRepository;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.List;
-import org.mindrot.jbcrypt.BCrypt;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 
 /**
@@ -16,6 +30,8 @@ import org.mindrot.jbcrypt.BCrypt;
  * - CRUD de usuarios
  * - Cambio de contraseñas
  * - Verificación de permisos
+ * - Sesiones con token para no repetir BCrypt al cambiar de ventana
+ * - Límite de intentos fallidos por usuario y por equipo
  * </p>
  * @author Nelo Angelo
  */
@@ -24,53 +40,307 @@ import org.mindrot.jbcrypt.BCrypt;
  * Controlador para operaciones de autenticación y gestión de usuarios
  */
 public class AuthController {
-    
+
+    /**
+     * Autenticaciones pendientes máximas por defecto en el ejecutor de hashing.
+     */
+    public static final int DEFAULT_LOGIN_QUEUE_CAPACITY = 32;
+
+    /**
+     * Duración por defecto de una sesión, en minutos (una jornada).
+     */
+    public static final long DEFAULT_SESSION_TTL_MINUTES = 8 * 60;
+
+    /**
+     * Sesiones máximas en memoria por defecto.
+     */
+    public static final int DEFAULT_MAX_SESSIONS = 256;
+
+    private static final long HASHING_KEEP_ALIVE_SECONDS = 30;
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom TOKEN_RANDOM = new SecureRandom();
+
+    // Sesiones compartidas por todas las ventanas de la aplicación
+    private static final SessionCache sessions = new SessionCache(
+        Integer.getInteger("vacation.session.maxEntries", DEFAULT_MAX_SESSIONS),
+        TimeUnit.MINUTES.toMillis(Long.getLong("vacation.session.ttlMinutes", DEFAULT_SESSION_TTL_MINUTES)));
+
+    private static ThreadPoolExecutor hashingExecutor;
+
+    // Métricas de autenticación, compartidas por todos los controladores
+    private static final LongAdder attempts = new LongAdder();
+    private static final LongAdder hashNanos = new LongAdder();
+    private static final LongAdder dbNanos = new LongAdder();
+
+    // Límite de intentos compartido por todas las ventanas de la aplicación
+    private static final LoginThrottle DEFAULT_THROTTLE = new LoginThrottle();
+    private static String localSource;
+
+    private final UserRepository users;
+    private final LoginThrottle throttle;
+
+    /**
+     * Crea un controlador sobre el almacenamiento activo ({@link Repositories}).
+     */
+    public AuthController() {
+        this(Repositories.users());
+    }
+
+    /**
+     * Crea un controlador sobre un almacenamiento específico.
+     * @param users Repositorio de usuarios
+     * @throws IllegalArgumentException si es nulo
+     */
+    public AuthController(UserRepository users) {
+        this(users, DEFAULT_THROTTLE);
+    }
+
+    /**
+     * Crea un controlador con su propio límite de intentos fallidos.
+     * @param users Repositorio de usuarios
+     * @param throttle Límite de intentos
+     * @throws IllegalArgumentException si alguno es nulo
+     */
+    public AuthController(UserRepository users, LoginThrottle throttle) {
+        if (users == null) {
+            throw new IllegalArgumentException("El repositorio de usuarios no puede ser nulo");
+        }
+        if (throttle == null) {
+            throw new IllegalArgumentException("El límite de intentos no puede ser nulo");
+        }
+        this.users = users;
+        this.throttle = throttle;
+    }
+
     /**
      * Autentica un usuario con nombre de usuario y contraseña
      *  * - Contraseñas hasheadas con BCrypt
      * - Migración automática de contraseñas en texto plano a BCrypt
+     * - Rehash con el costo actual ({@link PasswordHasher}) de los hashes
+     *   generados con otro costo
      * - Validación de credenciales
      * </p>
      * @param username Nombre de usuario
      * @param password Contraseña
      * @return Objeto User si las credenciales son válidas, null en caso contrario
+     * @throws IllegalStateException si el usuario o este equipo acumulan
+     *                               demasiados intentos fallidos recientes
      */
     public User authenticate(String username, String password) {
+        return authenticate(username, password, getLocalSource());
+    }
+
+    /**
+     * Autentica un usuario indicando el origen del intento.
+     * <p>
+     * Antes de consultar la base de datos o verificar con BCrypt se revisa
+     * el límite de intentos fallidos ({@link LoginThrottle}) del usuario y
+     * del origen; un intento que debe esperar se rechaza sin hashear.
+     * </p>
+     * @param username Nombre de usuario
+     * @param password Contraseña
+     * @param source Origen del intento (por ejemplo, el nombre del equipo)
+     * @return Objeto User si las credenciales son válidas, null en caso contrario
+     * @throws IllegalStateException si hay demasiados intentos fallidos recientes
+     */
+    public User authenticate(String username, String password, String source) {
         if (username == null || password == null || username.trim().isEmpty() || password.trim().isEmpty()) {
             return null;
         }
+        String origin = source == null || source.isEmpty() ? "local" : source;
 
-        String sql = "SELECT * FROM users WHERE username = ?";
-        
-        try (Connection conn = Database.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, username.trim());
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                String storedHash = rs.getString("password");
-                
-                // Caso 1: La contraseña está hasheada con BCrypt
-                if (isValidBcryptHash(storedHash)) {
-                    if (BCrypt.checkpw(password, storedHash)) {
-                        return createUserFromResultSet(rs);
-                    }
-                } 
-                // Caso 2: Contraseña en texto plano (migración automática)
-                else if (storedHash.equals(password)) {
-                    return migratePasswordAndGetUser(conn, rs, password);
-                }
-                // Caso 3: Contraseña en otro formato no reconocido
-                else {
-                    System.err.println("Formato de contraseña no reconocido para usuario: " + username);
-                }
+        long wait = throttle.checkAllowed(username, origin);
+        if (wait > 0) {
+            throw new IllegalStateException("Demasiados intentos fallidos; intente de nuevo en "
+                + Math.max(1, TimeUnit.MILLISECONDS.toSeconds(wait + 999)) + " segundos");
+        }
+
+        User user = verifyCredentials(username, password);
+        if (user != null) {
+            throttle.recordSuccess(username);
+        } else {
+            throttle.recordFailure(username, origin);
+        }
+        return user;
+    }
+
+    private User verifyCredentials(String username, String password) {
+        attempts.increment();
+        long start = System.nanoTime();
+        User user = users.findByUsername(username.trim());
+        dbNanos.add(System.nanoTime() - start);
+        if (user == null) {
+            return null;
+        }
+        String storedHash = user.getPassword();
+
+        // Caso 1: La contraseña está hasheada con BCrypt
+        if (PasswordHasher.isBcryptHash(storedHash)) {
+            start = System.nanoTime();
+            boolean matches = PasswordHasher.verify(password, storedHash);
+            hashNanos.add(System.nanoTime() - start);
+            if (matches) {
+                // Hash con un costo anterior a la calibración: se rehace
+                return PasswordHasher.needsRehash(storedHash) ? rehashAndGetUser(user, password) : user;
             }
-        } catch (SQLException e) {
-            System.err.println("Error durante autenticación: " + e.getMessage());
+        }
+        // Caso 2: Contraseña en texto plano (migración automática)
+        else if (storedHash != null && storedHash.equals(password)) {
+            return migratePasswordAndGetUser(user, password);
+        }
+        // Caso 3: Contraseña en otro formato no reconocido
+        else {
+            System.err.println("Formato de contraseña no reconocido para usuario: " + username);
         }
         return null;
     }
+
+    /**
+     * Autentica un usuario sin bloquear al llamador.
+     * <p>
+     * La verificación con BCrypt (y la migración de contraseñas en texto
+     * plano) corre en un ejecutor dedicado con un hilo por núcleo y una cola
+     * acotada, así que la interfaz puede mostrar el progreso mientras tanto.
+     * El futuro falla con {@link RejectedExecutionException} si hay
+     * demasiadas autenticaciones pendientes.
+     * </p>
+     * @param username Nombre de usuario
+     * @param password Contraseña
+     * @return Futuro con el usuario si las credenciales son válidas, o null
+     */
+    public CompletableFuture<User> authenticateAsync(String username, String password) {
+        try {
+            return CompletableFuture.supplyAsync(() -> authenticate(username, password), getHashingExecutor());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Inicia una sesión para un usuario ya autenticado.
+     * <p>
+     * El token es aleatorio (256 bits) y solo lo conoce el llamador: la
+     * caché y la tabla sessions guardan su hash SHA-256. Con
+     * {@code -Dvacation.session.persist=true} la sesión también se guarda en
+     * la base de datos y sobrevive a un reinicio de la aplicación.
+     * </p>
+     * @param user Usuario devuelto por {@link #authenticate(String, String)}
+     * @return Token de la sesión
+     * @throws IllegalArgumentException si el usuario es nulo o no tiene ID
+     */
+    public String startSession(User user) {
+        if (user == null || user.getId() <= 0) {
+            throw new IllegalArgumentException("Usuario inválido para iniciar sesión");
+        }
+        byte[] bytes = new byte[TOKEN_BYTES];
+        TOKEN_RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        String tokenHash = hashToken(token);
+
+        long expiresAt = sessions.put(tokenHash, user);
+        if (isSessionPersistenceEnabled() && !users.insertSession(tokenHash, user.getId(), expiresAt)) {
+            System.err.println("No se pudo guardar la sesión de: " + user.getUsername());
+        }
+        return token;
+    }
+
+    /**
+     * Valida una sesión sin volver a verificar la contraseña.
+     * <p>
+     * Una sesión en memoria se resuelve con una búsqueda en la caché; solo
+     * si no está ahí y la persistencia está activa se consulta la tabla
+     * sessions, y el resultado queda en la caché.
+     * </p>
+     * @param token Token devuelto por {@link #startSession(User)}
+     * @return Usuario sin contraseña, o null si la sesión no existe o venció
+     */
+    public User validateSession(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String tokenHash = hashToken(token);
+        User user = sessions.get(tokenHash);
+        if (user != null || !isSessionPersistenceEnabled()) {
+            return user;
+        }
+        // Sesión iniciada en una ejecución anterior
+        user = users.findSessionUser(tokenHash, System.currentTimeMillis());
+        if (user != null) {
+            sessions.put(tokenHash, user, users.getSessionExpiry(tokenHash));
+        }
+        return user;
+    }
+
+    /**
+     * Termina una sesión (cierre de sesión).
+     * @param token Token de la sesión
+     */
+    public void endSession(String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        String tokenHash = hashToken(token);
+        sessions.remove(tokenHash);
+        if (isSessionPersistenceEnabled()) {
+            users.deleteSession(tokenHash);
+        }
+    }
+
+    /**
+     * @return true si las sesiones se guardan en la base de datos
+     *         ({@code -Dvacation.session.persist=true})
+     */
+    public static boolean isSessionPersistenceEnabled() {
+        return Boolean.getBoolean("vacation.session.persist");
+    }
+
+    /**
+     * Detiene el ejecutor de autenticación. Se usa al terminar la aplicación.
+     */
+    public static synchronized void shutdownHashingExecutor() {
+        if (hashingExecutor != null) {
+            hashingExecutor.shutdown();
+            hashingExecutor = null;
+        }
+    }
+
+    /**
+     * Obtiene las estadísticas del límite de intentos fallidos.
+     * @return Instantánea con los intentos rechazados, fallidos y bloqueos
+     */
+    public LoginThrottle.Stats getThrottleStats() {
+        return throttle.getStats();
+    }
+
+    /**
+     * Obtiene las métricas acumuladas de autenticación.
+     * @return Instantánea con los intentos y el tiempo de hashing y de base de datos
+     */
+    public static LoginStats getLoginStats() {
+        return new LoginStats(attempts.sum(),
+                TimeUnit.NANOSECONDS.toMillis(hashNanos.sum()),
+                TimeUnit.NANOSECONDS.toMillis(dbNanos.sum()));
+    }
+
+    private static synchronized ThreadPoolExecutor getHashingExecutor() {
+        if (hashingExecutor == null) {
+            // BCrypt ocupa la CPU por completo: más hilos que núcleos no ayudan
+            int threads = Math.max(1, Integer.getInteger("vacation.auth.threads",
+                    Runtime.getRuntime().availableProcessors()));
+            AtomicInteger counter = new AtomicInteger();
+            hashingExecutor = new ThreadPoolExecutor(threads, threads,
+                HASHING_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Integer.getInteger("vacation.auth.queueCapacity", DEFAULT_LOGIN_QUEUE_CAPACITY)),
+                r -> {
+                    Thread t = new Thread(r, "auth-hash-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+            hashingExecutor.allowCoreThreadTimeOut(true);
+        }
+        return hashingExecutor;
+    }
     
     /**
      * Crea un nuevo usuario en el sistema con contraseña hasheada.
@@ -90,23 +360,8 @@ public class AuthController {
             return false;
         }
         
-        String hashedPassword = BCrypt.hashpw(password, BCrypt.gensalt());
-        String sql = "INSERT INTO users (username, password, is_admin) VALUES (?, ?, ?)";
-        
-        try (Connection conn = Database.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setString(1, username.trim());
-            pstmt.setString(2, hashedPassword);
-            pstmt.setBoolean(3, isAdmin);
-            
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-            
-        } catch (SQLException e) {
-            System.err.println("Error al crear usuario: " + e.getMessage());
-            return false;
-        }
+        String hashedPassword = PasswordHasher.hash(password);
+        return users.insert(username.trim(), hashedPassword, isAdmin);
     }
     
     /**
@@ -114,25 +369,7 @@ public class AuthController {
      * @return Lista de usuarios ordenados por nombre de usuario
      */
     public List<User> getAllUsers() {
-        List<User> users = new ArrayList<>();
-        String sql = "SELECT id, username, is_admin FROM users ORDER BY username";
-        
-        try (Connection conn = Database.connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                users.add(new User(
-                    rs.getInt("id"),
-                    rs.getString("username"),
-                    "", // No devolver la contraseña por seguridad
-                    rs.getBoolean("is_admin")
-                ));
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al obtener usuarios: " + e.getMessage());
-        }
-        return users;
+        return users.findAll();
     }
     
     /**
@@ -146,18 +383,11 @@ public class AuthController {
             return false;
         }
         
-        String sql = "DELETE FROM users WHERE id = ?";
-        
-        try (Connection conn = Database.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, userId);
-            return pstmt.executeUpdate() > 0;
-            
-        } catch (SQLException e) {
-            System.err.println("Error al eliminar usuario: " + e.getMessage());
+        if (!users.delete(userId)) {
             return false;
         }
+        invalidateSessions(userId);
+        return true;
     }
     
     /**
@@ -170,7 +400,7 @@ public class AuthController {
             return false;
         }
         
-        if (usernameExists(user.getUsername(), user.getId())) {
+        if (users.usernameExists(user.getUsername().trim(), user.getId())) {
             return false;
         }
         
@@ -178,21 +408,12 @@ public class AuthController {
             return false;
         }
         
-        String sql = "UPDATE users SET username = ?, is_admin = ? WHERE id = ?";
-        
-        try (Connection conn = Database.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, user.getUsername().trim());
-            pstmt.setBoolean(2, user.isAdmin());
-            pstmt.setInt(3, user.getId());
-            
-            return pstmt.executeUpdate() > 0;
-            
-        } catch (SQLException e) {
-            System.err.println("Error al actualizar usuario: " + e.getMessage());
+        if (!users.update(new User(user.getId(), user.getUsername().trim(), "", user.isAdmin()))) {
             return false;
         }
+        // Las sesiones guardan el nombre y el rol: se vuelve a iniciar sesión
+        invalidateSessions(user.getId());
+        return true;
     }
     
     /**
@@ -206,21 +427,12 @@ public class AuthController {
             return false;
         }
         
-        String hashedPassword = BCrypt.hashpw(newPassword, BCrypt.gensalt());
-        String sql = "UPDATE users SET password = ? WHERE id = ?";
-        
-        try (Connection conn = Database.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, hashedPassword);
-            pstmt.setInt(2, userId);
-            
-            return pstmt.executeUpdate() > 0;
-            
-        } catch (SQLException e) {
-            System.err.println("Error al actualizar contraseña: " + e.getMessage());
+        String hashedPassword = PasswordHasher.hash(newPassword);
+        if (!users.updatePassword(userId, hashedPassword)) {
             return false;
         }
+        invalidateSessions(userId);
+        return true;
     }
     
     /**
@@ -229,130 +441,119 @@ public class AuthController {
      * @return Objeto User o null si no se encontró
      */
     public User getUserById(int userId) {
-        String sql = "SELECT id, username, is_admin FROM users WHERE id = ?";
-        
-        try (Connection conn = Database.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, userId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return new User(
-                    rs.getInt("id"),
-                    rs.getString("username"),
-                    "", // No devolver la contraseña
-                    rs.getBoolean("is_admin")
-                );
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al obtener usuario por ID: " + e.getMessage());
-        }
-        return null;
+        return users.findById(userId);
     }
 
     // ==================== MÉTODOS PRIVADOS DE APOYO ====================
 
     boolean userExists(String username) {
-        String sql = "SELECT 1 FROM users WHERE username = ?";
-        
-        try (Connection conn = Database.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, username.trim());
-            ResultSet rs = pstmt.executeQuery();
-            return rs.next();
-            
-        } catch (SQLException e) {
-            System.err.println("Error al verificar existencia de usuario: " + e.getMessage());
-            return false;
-        }
+        return users.usernameExists(username.trim(), 0);
     }
     
-    private boolean usernameExists(String username, int excludeUserId) {
-        String sql = "SELECT 1 FROM users WHERE username = ? AND id != ?";
-        
-        try (Connection conn = Database.connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, username.trim());
-            pstmt.setInt(2, excludeUserId);
-            ResultSet rs = pstmt.executeQuery();
-            return rs.next();
-            
-        } catch (SQLException e) {
-            System.err.println("Error al verificar nombre de usuario: " + e.getMessage());
+    boolean isLastAdmin(int userId) {
+        User user = users.findById(userId);
+        if (user == null || !user.isAdmin()) {
             return false;
         }
+        // Contar cuántos admins hay
+        return users.countAdmins() <= 1;
     }
     
-    boolean isLastAdmin(int userId) {
-        // Primero verificar si el usuario es admin
-        String checkAdminSql = "SELECT is_admin FROM users WHERE id = ?";
-        boolean isAdmin = false;
-        
-        try (Connection conn = Database.connect();
-             PreparedStatement pstmt = conn.prepareStatement(checkAdminSql)) {
-            
-            pstmt.setInt(1, userId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                isAdmin = rs.getBoolean("is_admin");
-            }
-            
-            if (!isAdmin) {
-                return false;
+    // Los intentos desde la aplicación de escritorio se agrupan por equipo
+    private static synchronized String getLocalSource() {
+        if (localSource == null) {
+            try {
+                localSource = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                localSource = "local";
             }
-            
-            // Contar cuántos admins hay
-            String countAdminsSql = "SELECT COUNT(*) FROM users WHERE is_admin = TRUE";
-            try (Statement stmt = conn.createStatement();
-                 ResultSet countRs = stmt.executeQuery(countAdminsSql)) {
-                
-                if (countRs.next()) {
-                    int adminCount = countRs.getInt(1);
-                    return adminCount <= 1;
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al verificar último admin: " + e.getMessage());
         }
-        return false;
+        return localSource;
     }
-    
-    private boolean isValidBcryptHash(String hash) {
-        return hash != null && 
-               (hash.startsWith("$2a$") || 
-                hash.startsWith("$2b$") || 
-                hash.startsWith("$2y$"));
+
+    private void invalidateSessions(int userId) {
+        sessions.removeUser(userId);
+        if (isSessionPersistenceEnabled()) {
+            users.deleteSessions(userId);
+        }
     }
-    
-    private User createUserFromResultSet(ResultSet rs) throws SQLException {
-        return new User(
-            rs.getInt("id"),
-            rs.getString("username"),
-            rs.getString("password"),
-            rs.getBoolean("is_admin")
-        );
+
+    static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Toda JVM incluye SHA-256
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
     }
-    
-    private User migratePasswordAndGetUser(Connection conn, ResultSet rs, String password) throws SQLException {
-        int userId = rs.getInt("id");
-        String newHash = BCrypt.hashpw(password, BCrypt.gensalt());
-        
-        String updateSql = "UPDATE users SET password = ? WHERE id = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(updateSql)) {
-            pstmt.setString(1, newHash);
-            pstmt.setInt(2, userId);
-            pstmt.executeUpdate();
+
+    private User migratePasswordAndGetUser(User user, String password) {
+        long start = System.nanoTime();
+        String newHash = PasswordHasher.hash(password);
+        long hashed = System.nanoTime();
+        hashNanos.add(hashed - start);
+        boolean updated = users.updatePassword(user.getId(), newHash);
+        dbNanos.add(System.nanoTime() - hashed);
+        if (!updated) {
+            return null;
+        }
+        return new User(user.getId(), user.getUsername(), newHash, user.isAdmin());
+    }
+
+    // La contraseña ya se verificó: si no se puede guardar el hash nuevo se
+    // conserva el anterior y la sesión continúa
+    private User rehashAndGetUser(User user, String password) {
+        User rehashed = migratePasswordAndGetUser(user, password);
+        if (rehashed == null) {
+            System.err.println("No se pudo actualizar el costo de la contraseña de: " + user.getUsername());
+            return user;
+        }
+        return rehashed;
+    }
+
+    /**
+     * Instantánea de las métricas de autenticación.
+     */
+    public static class LoginStats {
+        private final long attempts;
+        private final long hashMillis;
+        private final long dbMillis;
+
+        LoginStats(long attempts, long hashMillis, long dbMillis) {
+            this.attempts = attempts;
+            this.hashMillis = hashMillis;
+            this.dbMillis = dbMillis;
+        }
+
+        /**
+         * @return Autenticaciones con usuario y contraseña no vacíos
+         */
+        public long getAttempts() {
+            return attempts;
+        }
+
+        /**
+         * @return Milisegundos verificando y generando hashes BCrypt
+         */
+        public long getHashMillis() {
+            return hashMillis;
+        }
+
+        /**
+         * @return Milisegundos consultando y actualizando usuarios
+         */
+        public long getDbMillis() {
+            return dbMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "LoginStats{" +
+                   "intentos=" + attempts +
+                   ", hashMs=" + hashMillis +
+                   ", baseDeDatosMs=" + dbMillis +
+                   '}';
         }
-        
-        return new User(
-            userId,
-            rs.getString("username"),
-            newHash,
-            rs.getBoolean("is_admin")
-        );
     }
-}
\ No newline at end of file
+}
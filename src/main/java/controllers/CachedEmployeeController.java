@@ -0,0 +1,350 @@
+package controllers;
+
+import models.Database;
+import models.Employee;
+import models.EmployeeDirectoryEntry;
+import models.EmployeeSummary;
+import models.SqliteEmployeeRepository;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Controlador de empleados con un espejo en memoria de la tabla.
+ * <p>
+ * Mantiene todos los empleados indexados por ID, NSS y CURP para que las
+ * lecturas sean búsquedas en mapas:
+ * - Las altas, cambios y bajas hechas a través de este controlador se
+ *   escriben en la base de datos y en el espejo (write-through)
+ * - Los cambios hechos por otras conexiones u otros procesos se detectan con
+ *   PRAGMA data_version y provocan una recarga completa del espejo
+ * </p>
+ * Se activa con la propiedad del sistema {@code vacation.cache.enabled=true}
+ * (ver {@link EmployeeController#create()}). Los objetos Employee devueltos
+ * son copias, así que modificarlos no altera el espejo.
+ *
+ * @author Nelo Angelo
+ */
+public class CachedEmployeeController extends EmployeeController {
+
+    private static CachedEmployeeController instance;
+
+    private static final Comparator<Employee> NAME_ORDER = Comparator
+            .comparing(Employee::getLastName)
+            .thenComparing(Employee::getFirstName)
+            .thenComparingInt(Employee::getId);
+
+    // Se reemplaza completo al recargar: un lector ve el espejo anterior o
+    // el nuevo, nunca uno a medio llenar
+    private volatile Mirror mirror = new Mirror();
+
+    // Conexión propia fuera del pool: data_version solo cambia por escrituras
+    // de OTRAS conexiones
+    private Connection versionConnection;
+    private long knownDataVersion = -1;
+    // Último registro de la bitácora employee_changes reflejado en el espejo
+    private long knownChangeSequence = -1;
+    private volatile List<Employee> sortedView;
+    // Recargas completas hechas; una escritura propia no debe provocar ninguna
+    private long reloads;
+
+    /**
+     * Obtiene el espejo compartido por toda la aplicación.
+     * @return Instancia única del controlador con caché
+     */
+    public static synchronized CachedEmployeeController getInstance() {
+        if (instance == null) {
+            instance = new CachedEmployeeController();
+        }
+        return instance;
+    }
+
+    // El espejo detecta cambios externos con PRAGMA data_version: solo aplica a SQLite
+    private CachedEmployeeController() {
+        super(new SqliteEmployeeRepository());
+    }
+
+    // ---- Lecturas desde el espejo ----
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        ensureFresh();
+        List<Employee> sorted = sortedEmployees();
+        List<Employee> employees = new ArrayList<>(sorted.size());
+        for (Employee emp : sorted) {
+            employees.add(copyOf(emp));
+        }
+        return employees;
+    }
+
+    @Override
+    public Employee getEmployeeById(int id) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("ID de empleado inválido");
+        }
+        ensureFresh();
+        Employee emp = mirror.byId.get(id);
+        return emp != null ? copyOf(emp) : null;
+    }
+
+    @Override
+    public boolean nssExists(String nss) {
+        if (nss == null || nss.trim().isEmpty()) {
+            throw new IllegalArgumentException("NSS no puede estar vacío");
+        }
+        ensureFresh();
+        return mirror.idByNss.containsKey(nss.trim());
+    }
+
+    @Override
+    public boolean curpExists(String curp) {
+        if (curp == null || curp.trim().isEmpty()) {
+            throw new IllegalArgumentException("CURP no puede estar vacía");
+        }
+        ensureFresh();
+        return mirror.idByCurp.containsKey(curp.trim());
+    }
+
+    @Override
+    public int countEmployees() {
+        ensureFresh();
+        return mirror.byId.size();
+    }
+
+    @Override
+    public List<EmployeeSummary> getEmployeeSummaries() {
+        ensureFresh();
+        List<Employee> sorted = sortedEmployees();
+        List<EmployeeSummary> summaries = new ArrayList<>(sorted.size());
+        for (Employee emp : sorted) {
+            summaries.add(new EmployeeSummary(emp.getId(), emp.getFirstName(), emp.getLastName(),
+                    emp.getMothersLastName(), emp.getHireDate(), emp.getNss(), emp.getDepartment(),
+                    emp.getMonthlySalary()));
+        }
+        return summaries;
+    }
+
+    @Override
+    public List<EmployeeDirectoryEntry> getDirectoryEntries() {
+        ensureFresh();
+        List<Employee> sorted = sortedEmployees();
+        List<EmployeeDirectoryEntry> entries = new ArrayList<>(sorted.size());
+        for (Employee emp : sorted) {
+            entries.add(new EmployeeDirectoryEntry(emp.getFullName(), emp.getDepartment(),
+                    emp.getHireDate(), emp.getMonthlySalary()));
+        }
+        return entries;
+    }
+
+    // ---- Escrituras write-through ----
+
+    @Override
+    public boolean addEmployee(Employee employee) {
+        boolean added = super.addEmployee(employee);
+        if (added) {
+            afterLocalWrite(() -> put(copyOf(employee)));
+        }
+        return added;
+    }
+
+    @Override
+    public boolean updateEmployee(Employee employee) {
+        boolean updated = super.updateEmployee(employee);
+        if (updated) {
+            afterLocalWrite(() -> put(copyOf(employee)));
+        }
+        return updated;
+    }
+
+    /*
+     * La cola de escrituras completa el futuro después del commit, en su
+     * hilo; el espejo se actualiza ahí igual que en las escrituras
+     * síncronas. Si la escritura se confirmó en grupo con otras, la
+     * bitácora avanzó más de uno y afterLocalWrite descarta el espejo.
+     */
+    @Override
+    public CompletableFuture<Integer> addEmployeeAsync(Employee employee) {
+        return super.addEmployeeAsync(employee).thenApply(id -> {
+            afterLocalWrite(() -> put(copyOf(employee)));
+            return id;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateEmployeeAsync(Employee employee) {
+        return super.updateEmployeeAsync(employee).thenApply(updated -> {
+            if (updated) {
+                afterLocalWrite(() -> put(copyOf(employee)));
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public boolean deleteEmployee(int id) {
+        boolean deleted = super.deleteEmployee(id);
+        if (deleted) {
+            afterLocalWrite(() -> remove(id));
+        }
+        return deleted;
+    }
+
+    /**
+     * Descarta el espejo para que la siguiente lectura lo recargue completo.
+     */
+    public synchronized void invalidate() {
+        knownDataVersion = -1;
+    }
+
+    synchronized long getReloadCount() {
+        return reloads;
+    }
+
+    // ---- Métodos auxiliares ----
+
+    // Revalida con PRAGMA data_version y recarga si otra conexión escribió
+    private synchronized void ensureFresh() {
+        try {
+            long version = readDataVersion();
+            if (version != knownDataVersion) {
+                // La secuencia se lee antes de recargar: un cambio que llegue
+                // durante la recarga se vuelve a detectar en la siguiente lectura
+                long sequence = readChangeSequence();
+                reload();
+                knownDataVersion = version;
+                knownChangeSequence = sequence;
+            }
+        } catch (SQLException e) {
+            knownDataVersion = -1;
+            System.err.println("Error al revalidar caché de empleados: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al obtener empleados", e);
+        }
+    }
+
+    /*
+     * La escritura propia se hizo con una conexión del pool, así que también
+     * cambia data_version. Solo se aplica al espejo si no hubo nada más:
+     * data_version avanzó exactamente uno y la bitácora tiene exactamente un
+     * registro nuevo (el nuestro). Si otra conexión o proceso escribió
+     * empleados en ese intervalo, se descarta el espejo y se recarga.
+     * La bitácora cubre el caso en que SQLite junta varios commits en un
+     * solo incremento de data_version.
+     */
+    private synchronized void afterLocalWrite(Runnable mirrorUpdate) {
+        if (knownDataVersion < 0) {
+            return; // El espejo aún no se carga; la primera lectura lo hará
+        }
+        try {
+            long version = readDataVersion();
+            long sequence = readChangeSequence();
+            if (version == knownDataVersion + 1 && sequence == knownChangeSequence + 1) {
+                mirrorUpdate.run();
+                knownDataVersion = version;
+                knownChangeSequence = sequence;
+            } else {
+                knownDataVersion = -1;
+            }
+        } catch (SQLException e) {
+            knownDataVersion = -1;
+        }
+    }
+
+    private long readDataVersion() throws SQLException {
+        return queryVersionConnection("PRAGMA data_version");
+    }
+
+    private long readChangeSequence() throws SQLException {
+        return queryVersionConnection("SELECT COALESCE(MAX(seq), 0) FROM employee_changes");
+    }
+
+    private long queryVersionConnection(String sql) throws SQLException {
+        if (versionConnection == null || versionConnection.isClosed()) {
+            versionConnection = Database.connectDedicated();
+        }
+        try (Statement stmt = versionConnection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : -1;
+        } catch (SQLException e) {
+            versionConnection.close();
+            versionConnection = null;
+            throw e;
+        }
+    }
+
+    private void reload() {
+        reloads++;
+        // Recorrido con cursor: no se arma una lista intermedia
+        Mirror loaded = new Mirror();
+        super.forEachEmployee(loaded::put);
+        mirror = loaded;
+        sortedView = null;
+    }
+
+    // Alta o cambio: la entrada se reemplaza sin quitarla antes, así que
+    // un lector concurrente nunca deja de encontrarla
+    private void put(Employee emp) {
+        mirror.put(emp);
+        sortedView = null;
+    }
+
+    private void remove(int id) {
+        mirror.remove(id);
+        sortedView = null;
+    }
+
+    private synchronized List<Employee> sortedEmployees() {
+        List<Employee> view = sortedView;
+        if (view == null) {
+            List<Employee> sorted = new ArrayList<>(mirror.byId.values());
+            sorted.sort(NAME_ORDER);
+            view = Collections.unmodifiableList(sorted);
+            sortedView = view;
+        }
+        return view;
+    }
+
+    private static Employee copyOf(Employee emp) {
+        return new Employee(emp.getId(), emp.getFirstName(), emp.getLastName(), emp.getMothersLastName(),
+                emp.getHireDate(), emp.getBirthDate(), emp.getNss(), emp.getCurp(),
+                emp.getDepartment(), emp.getMonthlySalary());
+    }
+
+    /**
+     * Índices del espejo; solo se modifican con el monitor del controlador.
+     */
+    private static class Mirror {
+        private final Map<Integer, Employee> byId = new ConcurrentHashMap<>();
+        private final Map<String, Integer> idByNss = new ConcurrentHashMap<>();
+        private final Map<String, Integer> idByCurp = new ConcurrentHashMap<>();
+
+        void put(Employee emp) {
+            Employee old = byId.put(emp.getId(), emp);
+            idByNss.put(emp.getNss(), emp.getId());
+            idByCurp.put(emp.getCurp(), emp.getId());
+            // Si cambió el NSS o la CURP, se quita la llave anterior después
+            if (old != null && !old.getNss().equals(emp.getNss())) {
+                idByNss.remove(old.getNss(), emp.getId());
+            }
+            if (old != null && !old.getCurp().equals(emp.getCurp())) {
+                idByCurp.remove(old.getCurp(), emp.getId());
+            }
+        }
+
+        void remove(int id) {
+            Employee old = byId.remove(id);
+            if (old != null) {
+                idByNss.remove(old.getNss(), id);
+                idByCurp.remove(old.getCurp(), id);
+            }
+        }
+    }
+}
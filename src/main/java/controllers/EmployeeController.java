@@ -1,11 +1,23 @@
 package controllers;
 
 import models.Employee;
+import models.EmployeeChangeSet;
+import models.EmployeeDirectoryEntry;
+import models.EmployeeRepository;
+import models.EmployeeSummary;
 import models.Database;
-import java.sql.*;
-import java.time.LocalDate;
+import models.Repositories;
+import models.SqliteEmployeeRepository;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Controlador para operaciones CRUD de empleados.
@@ -19,21 +31,67 @@ import java.util.List;
  */
 
 public class EmployeeController {
-    // SQL para inserción de nuevos empleados
-    private static final String INSERT_SQL = "INSERT INTO employees " +
-            "(first_name, last_name, mothers_last_name, hire_date, birth_date, nss, curp, department, monthly_salary) " +
-            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-    
-    private static final String UPDATE_SQL = "UPDATE employees SET " +
-            "first_name = ?, last_name = ?, mothers_last_name = ?, hire_date = ?, " +
-            "birth_date = ?, nss = ?, curp = ?, department = ?, monthly_salary = ? " +
-            "WHERE id = ?";
-    
-    private static final String DELETE_SQL = "DELETE FROM employees WHERE id = ?";
-    private static final String SELECT_ALL_SQL = "SELECT * FROM employees ORDER BY last_name, first_name";
-    private static final String SELECT_BY_ID_SQL = "SELECT * FROM employees WHERE id = ?";
-    private static final String SELECT_BY_NSS_SQL = "SELECT * FROM employees WHERE nss = ?";
-    private static final String SELECT_BY_CURP_SQL = "SELECT * FROM employees WHERE curp = ?";
+    /**
+     * Filas que el driver lee por bloque al recorrer empleados con un cursor.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
+    /**
+     * Resultados máximos por defecto de una búsqueda de texto.
+     */
+    public static final int DEFAULT_SEARCH_LIMIT = 200;
+
+    // Cola compartida de escrituras asíncronas; se crea con la primera operación
+    private static EmployeeWriteQueue writeQueue;
+
+    private final EmployeeRepository repository;
+
+    /**
+     * Crea un controlador sobre el almacenamiento activo ({@link Repositories}).
+     */
+    public EmployeeController() {
+        this(Repositories.employees());
+    }
+
+    /**
+     * Crea un controlador sobre un almacenamiento específico.
+     * @param repository Repositorio de empleados
+     * @throws IllegalArgumentException si es nulo
+     */
+    public EmployeeController(EmployeeRepository repository) {
+        if (repository == null) {
+            throw new IllegalArgumentException("El repositorio de empleados no puede ser nulo");
+        }
+        this.repository = repository;
+    }
+
+    /**
+     * Crea el controlador de empleados que deben usar las vistas.
+     * <p>
+     * Con la propiedad del sistema {@code vacation.cache.enabled=true} y el
+     * almacenamiento SQLite se devuelve el espejo en memoria compartido
+     * ({@link CachedEmployeeController}); de lo contrario, un controlador
+     * sobre el almacenamiento activo.
+     * </p>
+     * @return Controlador de empleados
+     */
+    public static EmployeeController create() {
+        if (Boolean.getBoolean("vacation.cache.enabled")
+                && Repositories.getBackend() == Repositories.Backend.SQLITE) {
+            return CachedEmployeeController.getInstance();
+        }
+        return new EmployeeController();
+    }
+
+    /**
+     * Crea un controlador de empleados para vistas que solo consultan datos
+     * (usuarios sin permisos de administrador). Con SQLite usa conexiones de
+     * solo lectura, así que sus consultas no compiten con las escrituras.
+     * @return Controlador de empleados de solo lectura
+     */
+    public static EmployeeController createReadOnly() {
+        return new EmployeeController(Repositories.readOnlyEmployees());
+    }
 
     /**
      * Agrega un nuevo empleado a la base de datos
@@ -47,35 +105,10 @@ public class EmployeeController {
             throw new IllegalArgumentException("El empleado no puede ser nulo");
         }
 
-        // Validar datos únicos
-        if (nssExists(employee.getNss())) {
-            throw new IllegalArgumentException("El NSS ya está registrado");
-        }
-        
-        if (curpExists(employee.getCurp())) {
-            throw new IllegalArgumentException("La CURP ya está registrada");
-        }
-
-        try (Connection conn = Database.connect();
-             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
-            
-            setEmployeeParameters(pstmt, employee);
-            
-            int affectedRows = pstmt.executeUpdate();
-            
-            if (affectedRows > 0) {
-                try (ResultSet rs = pstmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        employee.setId(rs.getInt(1));
-                        return true;
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al agregar empleado: " + e.getMessage());
-            throw new RuntimeException("Error de base de datos al agregar empleado", e);
-        }
-        return false;
+        // La unicidad de NSS y CURP la garantiza el repositorio, sin
+        // consultas previas ni carreras
+        employee.setId(repository.insert(employee));
+        return true;
     }
 
     /**
@@ -88,17 +121,67 @@ public class EmployeeController {
             throw new IllegalArgumentException("Empleado inválido para actualización");
         }
 
-        try (Connection conn = Database.connect();
-             PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
-            
-            setEmployeeParameters(pstmt, employee);
-            pstmt.setInt(10, employee.getId());
-            
-            return pstmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            System.err.println("Error al actualizar empleado: " + e.getMessage());
-            throw new RuntimeException("Error de base de datos al actualizar empleado", e);
+        return repository.update(employee);
+    }
+
+    /**
+     * Agrega un empleado sin bloquear al llamador.
+     * <p>
+     * Con SQLite la inserción se confirma en grupo con otras escrituras
+     * pendientes (ver {@link EmployeeWriteQueue}); con otros almacenamientos
+     * se hace en el momento y el futuro se devuelve ya completado. El id
+     * generado se asigna al empleado antes de completar el futuro.
+     * </p>
+     * @param employee Empleado a agregar
+     * @return Futuro con el id generado, o con IllegalArgumentException si el
+     *         NSS o la CURP ya están registrados
+     * @throws IllegalArgumentException si el empleado es nulo
+     */
+    public CompletableFuture<Integer> addEmployeeAsync(Employee employee) {
+        if (!isWritableSqlite()) {
+            if (employee == null) {
+                throw new IllegalArgumentException("El empleado no puede ser nulo");
+            }
+            return completeNow(() -> {
+                addEmployee(employee);
+                return employee.getId();
+            });
+        }
+        return getWriteQueue().submitAdd(employee);
+    }
+
+    /**
+     * Actualiza un empleado sin bloquear al llamador.
+     * @param employee Empleado con datos actualizados
+     * @return Futuro con true si el empleado existía
+     * @throws IllegalArgumentException si el empleado es inválido
+     */
+    public CompletableFuture<Boolean> updateEmployeeAsync(Employee employee) {
+        if (!isWritableSqlite()) {
+            if (employee == null || employee.getId() <= 0) {
+                throw new IllegalArgumentException("Empleado inválido para actualización");
+            }
+            return completeNow(() -> updateEmployee(employee));
         }
+        return getWriteQueue().submitUpdate(employee);
+    }
+
+    /**
+     * Confirma las escrituras asíncronas pendientes y detiene su hilo.
+     * Se llama al cerrar la aplicación, antes de cerrar el pool.
+     */
+    public static synchronized void shutdownWriteQueue() {
+        if (writeQueue != null) {
+            writeQueue.close();
+            writeQueue = null;
+        }
+    }
+
+    private static synchronized EmployeeWriteQueue getWriteQueue() {
+        if (writeQueue == null) {
+            writeQueue = new EmployeeWriteQueue();
+        }
+        return writeQueue;
     }
 
     /**
@@ -111,15 +194,7 @@ public class EmployeeController {
             throw new IllegalArgumentException("ID de empleado inválido");
         }
 
-        try (Connection conn = Database.connect();
-             PreparedStatement pstmt = conn.prepareStatement(DELETE_SQL)) {
-            
-            pstmt.setInt(1, id);
-            return pstmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            System.err.println("Error al eliminar empleado: " + e.getMessage());
-            throw new RuntimeException("Error de base de datos al eliminar empleado", e);
-        }
+        return repository.delete(id);
     }
 
     /**
@@ -127,20 +202,107 @@ public class EmployeeController {
      * @return Lista de todos los empleados
      */
     public List<Employee> getAllEmployees() {
-        List<Employee> employees = new ArrayList<>();
-        
-        try (Connection conn = Database.connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(SELECT_ALL_SQL)) {
-            
-            while (rs.next()) {
-                employees.add(mapResultSetToEmployee(rs));
-            }
-        } catch (SQLException e) {
-            System.err.println("Error al obtener empleados: " + e.getMessage());
-            throw new RuntimeException("Error de base de datos al obtener empleados", e);
+        return repository.findAll();
+    }
+
+    /**
+     * Obtiene las filas de la tabla de administración, leyendo solo las
+     * columnas que se muestran.
+     * @return Resúmenes de empleados ordenados por apellido y nombre
+     */
+    public List<EmployeeSummary> getEmployeeSummaries() {
+        return repository.findSummaries();
+    }
+
+    /**
+     * Obtiene las filas de la vista de empleados regulares (sin NSS ni CURP).
+     * @return Entradas del directorio ordenadas por apellido y nombre
+     */
+    public List<EmployeeDirectoryEntry> getDirectoryEntries() {
+        return repository.findDirectoryEntries();
+    }
+
+    /**
+     * Obtiene una página de empleados ordenados por apellido, nombre e id.
+     * <p>
+     * Usa paginación por llave (sin OFFSET): cada página continúa después del
+     * último empleado de la anterior, por lo que el costo no crece con el
+     * número de página. Para la primera página se pasa afterLastName = null.
+     * </p>
+     * @param afterLastName Apellido paterno del último empleado de la página anterior
+     * @param afterFirstName Nombre del último empleado de la página anterior
+     * @param afterId ID del último empleado de la página anterior
+     * @param limit Número máximo de empleados a devolver
+     * @return Empleados de la página; vacía cuando no hay más
+     * @throws IllegalArgumentException si limit no es positivo o falta el nombre
+     */
+    public List<Employee> getEmployeesPage(String afterLastName, String afterFirstName, int afterId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor a cero");
+        }
+        boolean firstPage = afterLastName == null;
+        if (!firstPage && afterFirstName == null) {
+            throw new IllegalArgumentException("El nombre de referencia no puede ser nulo");
+        }
+
+        return repository.findPage(afterLastName, afterFirstName, afterId, limit);
+    }
+
+    /**
+     * Obtiene la página siguiente a la del empleado indicado.
+     * @param last Último empleado de la página anterior, o null para la primera página
+     * @param limit Número máximo de empleados a devolver
+     * @return Empleados de la página; vacía cuando no hay más
+     */
+    public List<Employee> getEmployeesPageAfter(Employee last, int limit) {
+        if (last == null) {
+            return getEmployeesPage(null, null, 0, limit);
+        }
+        return getEmployeesPage(last.getLastName(), last.getFirstName(), last.getId(), limit);
+    }
+
+    /**
+     * Cuenta el total de empleados registrados.
+     * @return Número de empleados
+     */
+    public int countEmployees() {
+        return repository.count();
+    }
+
+    /**
+     * Recorre todos los empleados sin cargarlos todos a la vez.
+     * <p>
+     * Los empleados se construyen conforme se consumen, por lo que la memoria
+     * usada no depende del tamaño de la tabla. Con SQLite el Stream mantiene
+     * ocupada una conexión del pool hasta cerrarse, así que debe usarse con
+     * try-with-resources.
+     * </p>
+     * @param fetchSize Filas que el driver lee por bloque
+     * @return Stream perezoso de empleados ordenados por apellido y nombre
+     * @throws IllegalArgumentException si fetchSize no es positivo
+     * @throws RuntimeException si ocurre un error de base de datos
+     */
+    public Stream<Employee> streamEmployees(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser mayor a cero");
+        }
+
+        return repository.stream(fetchSize);
+    }
+
+    /**
+     * Aplica una acción a cada empleado sin cargar la tabla completa en memoria.
+     * La conexión se libera al terminar, incluso si la acción lanza una excepción.
+     * @param visitor Acción a ejecutar por cada empleado
+     * @throws IllegalArgumentException si visitor es nulo
+     */
+    public void forEachEmployee(Consumer<Employee> visitor) {
+        if (visitor == null) {
+            throw new IllegalArgumentException("La acción no puede ser nula");
+        }
+        try (Stream<Employee> employees = streamEmployees(DEFAULT_FETCH_SIZE)) {
+            employees.forEach(visitor);
         }
-        return employees;
     }
 
     /**
@@ -153,20 +315,66 @@ public class EmployeeController {
             throw new IllegalArgumentException("ID de empleado inválido");
         }
 
-        try (Connection conn = Database.connect();
-             PreparedStatement pstmt = conn.prepareStatement(SELECT_BY_ID_SQL)) {
-            
-            pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return mapResultSetToEmployee(rs);
-            }
-            return null;
-        } catch (SQLException e) {
-            System.err.println("Error al buscar empleado por ID: " + e.getMessage());
-            throw new RuntimeException("Error de base de datos al buscar empleado", e);
-        }
+        return repository.findById(id);
+    }
+
+    /**
+     * Obtiene el número de secuencia más reciente de la bitácora de cambios.
+     * <p>
+     * Una vista lo lee antes de una carga completa y después lo pasa a
+     * {@link #getChangesSince(long)} para recibir solo lo que cambió.
+     * </p>
+     * @return Última secuencia, o 0 si aún no hay cambios
+     * @throws RuntimeException si ocurre un error de base de datos
+     */
+    public long getLatestChangeSequence() {
+        return repository.getLatestChangeSequence();
+    }
+
+    /**
+     * Obtiene los empleados agregados, modificados o eliminados después de
+     * una secuencia de la bitácora.
+     * <p>
+     * El costo depende del número de cambios, no del número de empleados.
+     * </p>
+     * @param sinceSequence Última secuencia que ya conoce quien llama
+     * @return Cambios posteriores; si la bitácora ya no cubre esa secuencia
+     *         se indica que hace falta una recarga completa
+     * @throws RuntimeException si ocurre un error de base de datos
+     */
+    public EmployeeChangeSet getChangesSince(long sinceSequence) {
+        return repository.getChangesSince(sinceSequence);
+    }
+
+    /**
+     * Busca empleados por nombre, apellidos, NSS, CURP o departamento.
+     * <p>
+     * Cada palabra del texto se busca como prefijo y todas deben aparecer
+     * (por ejemplo "ram lo" encuentra a "Ana Ramírez Lozano"). No se
+     * distinguen mayúsculas ni acentos.
+     * </p>
+     * @param text Texto capturado por el usuario
+     * @param limit Número máximo de resultados
+     * @return IDs de los empleados encontrados, del más al menos relevante
+     * @throws IllegalArgumentException si el límite no es positivo
+     * @throws RuntimeException si ocurre un error de base de datos
+     */
+    public List<Integer> searchEmployeeIds(String text, int limit) {
+        checkSearchLimit(limit);
+        return repository.searchIds(text, limit);
+    }
+
+    /**
+     * Busca empleados y devuelve las filas para la tabla de administración.
+     * @param text Texto capturado por el usuario (ver {@link #searchEmployeeIds})
+     * @param limit Número máximo de resultados
+     * @return Resúmenes de los empleados encontrados, del más al menos relevante
+     * @throws IllegalArgumentException si el límite no es positivo
+     * @throws RuntimeException si ocurre un error de base de datos
+     */
+    public List<EmployeeSummary> searchEmployees(String text, int limit) {
+        checkSearchLimit(limit);
+        return repository.search(text, limit);
     }
 
     /**
@@ -180,17 +388,7 @@ public class EmployeeController {
             throw new IllegalArgumentException("NSS no puede estar vacío");
         }
 
-        try (Connection conn = Database.connect();
-             PreparedStatement pstmt = conn.prepareStatement(SELECT_BY_NSS_SQL)) {
-            
-            pstmt.setString(1, nss.trim());
-            ResultSet rs = pstmt.executeQuery();
-            
-            return rs.next();
-        } catch (SQLException e) {
-            System.err.println("Error al verificar NSS: " + e.getMessage());
-            throw new RuntimeException("Error de base de datos al verificar NSS", e);
-        }
+        return repository.existsByNss(nss.trim());
     }
 
     /**
@@ -204,45 +402,134 @@ public class EmployeeController {
             throw new IllegalArgumentException("CURP no puede estar vacía");
         }
 
-        try (Connection conn = Database.connect();
-             PreparedStatement pstmt = conn.prepareStatement(SELECT_BY_CURP_SQL)) {
-            
-            pstmt.setString(1, curp.trim());
-            ResultSet rs = pstmt.executeQuery();
-            
-            return rs.next();
+        return repository.existsByCurp(curp.trim());
+    }
+
+    /**
+     * Verifica el plan de ejecución de cada consulta SQL de empleados.
+     * <p>
+     * Ejecuta EXPLAIN QUERY PLAN sobre las consultas que expone
+     * {@link SqliteEmployeeRepository#getQueries()} y reporta
+     * las consultas que recorren la tabla completa sin índice o que requieren
+     * un ordenamiento temporal (USE TEMP B-TREE).
+     * </p>
+     * @return Advertencias encontradas; vacía si todos los planes usan índices
+     */
+    public static List<String> verifyQueryPlans() {
+        List<String> warnings = new ArrayList<>();
+
+        for (Map.Entry<String, String> query : SqliteEmployeeRepository.getQueries().entrySet()) {
+            try {
+                for (String detail : Database.explainQueryPlan(query.getValue())) {
+                    if (isInefficientPlan(detail)) {
+                        warnings.add(query.getKey() + ": " + detail);
+                    }
+                }
+            } catch (SQLException e) {
+                warnings.add(query.getKey() + ": no se pudo analizar (" + e.getMessage() + ")");
+            }
+        }
+
+        for (String warning : warnings) {
+            System.err.println("Advertencia de plan de consulta - " + warning);
+        }
+        return warnings;
+    }
+
+    /**
+     * Importa empleados de forma masiva desde un archivo CSV.
+     * <p>
+     * Las filas inválidas o duplicadas no detienen la importación: se
+     * reportan en el resultado junto con su número de línea.
+     * </p>
+     * @param csvFile Archivo CSV con encabezado (ver {@link EmployeeImporter})
+     * @return Resultado con el número de filas importadas y los errores por fila
+     * @throws IllegalArgumentException si el archivo es nulo
+     * @throws UnsupportedOperationException si el almacenamiento no es SQLite o es de solo lectura
+     * @throws RuntimeException si el archivo no se puede leer o falla la base de datos
+     */
+    public EmployeeImporter.ImportResult importEmployees(Path csvFile) {
+        if (csvFile == null) {
+            throw new IllegalArgumentException("El archivo de importación no puede ser nulo");
+        }
+
+        if (!isWritableSqlite()) {
+            throw new UnsupportedOperationException("La importación masiva requiere el almacenamiento SQLite de escritura");
+        }
+
+        try {
+            return new EmployeeImporter().importCsv(csvFile);
+        } catch (IOException e) {
+            System.err.println("Error al leer archivo de importación: " + e.getMessage());
+            throw new RuntimeException("Error al leer el archivo de importación", e);
         } catch (SQLException e) {
-            System.err.println("Error al verificar CURP: " + e.getMessage());
-            throw new RuntimeException("Error de base de datos al verificar CURP", e);
+            System.err.println("Error al importar empleados: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al importar empleados", e);
+        }
+    }
+
+    /**
+     * Exporta todos los empleados a un archivo CSV o JSON Lines.
+     * <p>
+     * Los empleados se leen con un cursor y se escriben conforme llegan, así
+     * que la memoria usada no depende del tamaño de la tabla.
+     * </p>
+     * @param target Archivo destino (se reemplaza si existe)
+     * @param format Formato de salida
+     * @param includeVacation true para agregar el cálculo de vacaciones por empleado
+     * @param listener Receptor del avance, o null
+     * @return Resultado con el número de filas y bytes escritos
+     * @throws IllegalArgumentException si el archivo o el formato son nulos
+     * @throws RuntimeException si el archivo no se puede escribir o falla la base de datos
+     */
+    public EmployeeExporter.ExportResult exportEmployees(Path target, EmployeeExporter.Format format,
+                                                         boolean includeVacation,
+                                                         EmployeeExporter.ProgressListener listener) {
+        if (target == null) {
+            throw new IllegalArgumentException("El archivo de exportación no puede ser nulo");
+        }
+        EmployeeExporter exporter = new EmployeeExporter(format, includeVacation);
+        // Se cuenta antes de abrir el cursor, que retiene una conexión del pool
+        int total = countEmployees();
+
+        try (Stream<Employee> employees = streamEmployees(DEFAULT_FETCH_SIZE)) {
+            return exporter.export(employees, total, target, listener);
+        } catch (IOException e) {
+            System.err.println("Error al escribir archivo de exportación: " + e.getMessage());
+            throw new RuntimeException("Error al escribir el archivo de exportación", e);
         }
     }
 
     // ---- Métodos auxiliares ----
-    
-    private void setEmployeeParameters(PreparedStatement pstmt, Employee employee) throws SQLException {
-        pstmt.setString(1, employee.getFirstName());
-        pstmt.setString(2, employee.getLastName());
-        pstmt.setString(3, employee.getMothersLastName());
-        pstmt.setString(4, employee.getHireDate().toString());
-        pstmt.setString(5, employee.getBirthDate().toString());
-        pstmt.setString(6, employee.getNss());
-        pstmt.setString(7, employee.getCurp());
-        pstmt.setString(8, employee.getDepartment());
-        pstmt.setDouble(9, employee.getMonthlySalary());
-    }
-
-    private Employee mapResultSetToEmployee(ResultSet rs) throws SQLException {
-        return new Employee(
-            rs.getInt("id"),
-            rs.getString("first_name"),
-            rs.getString("last_name"),
-            rs.getString("mothers_last_name"),
-            LocalDate.parse(rs.getString("hire_date")),
-            LocalDate.parse(rs.getString("birth_date")),
-            rs.getString("nss"),
-            rs.getString("curp"),
-            rs.getString("department"),
-            rs.getDouble("monthly_salary")
-        );
-    }
-}
\ No newline at end of file
+
+    // Un recorrido es aceptable si se hace en el orden de un índice
+    private static boolean isInefficientPlan(String detail) {
+        if (detail.contains("USE TEMP B-TREE")) {
+            return true;
+        }
+        // SCAN CONSTANT ROW es el SELECT sin FROM que envuelve subconsultas escalares
+        return detail.startsWith("SCAN ") && !detail.contains(" USING ") && !detail.contains("VIRTUAL TABLE")
+                && !detail.equals("SCAN CONSTANT ROW");
+    }
+
+    // La cola de escrituras y la importación escriben directamente en SQLite
+    private boolean isWritableSqlite() {
+        return repository instanceof SqliteEmployeeRepository
+                && !((SqliteEmployeeRepository) repository).isReadOnly();
+    }
+
+    private static void checkSearchLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El límite de resultados debe ser mayor a cero");
+        }
+    }
+
+    // Ejecuta una escritura en el hilo actual y entrega su resultado como futuro
+    private static <T> CompletableFuture<T> completeNow(Supplier<T> write) {
+        try {
+            return CompletableFuture.completedFuture(write.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
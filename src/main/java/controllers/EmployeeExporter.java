@@ -0,0 +1,296 @@
+package controllers;
+
+import models.Employee;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Exportación de empleados a CSV o JSON Lines.
+ * <p>
+ * Los empleados se escriben conforme se leen del cursor, sin armar la lista
+ * completa en memoria:
+ * - La salida pasa por un búfer de 64 KiB hacia un FileChannel
+ * - Opcionalmente se agrega el cálculo de vacaciones de cada empleado
+ * - El avance se reporta a un {@link ProgressListener} cada
+ *   {@value #PROGRESS_INTERVAL} filas y al terminar
+ * </p>
+ * El CSV sin columnas de vacaciones usa el mismo formato que
+ * {@link EmployeeImporter}, así que puede volver a importarse.
+ *
+ * @author Nelo Angelo
+ */
+public class EmployeeExporter {
+
+    /**
+     * Formato del archivo de salida.
+     */
+    public enum Format {
+        CSV("csv"),
+        JSON_LINES("jsonl");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Recibe el avance de una exportación.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param exported Filas escritas hasta el momento
+         * @param total Filas esperadas (puede ser aproximado)
+         */
+        void onProgress(int exported, int total);
+    }
+
+    /**
+     * Porcentaje de prima vacacional usado en la exportación (mínimo legal).
+     */
+    public static final double DEFAULT_VACATION_PERCENTAGE = 25;
+
+    /**
+     * Filas entre cada notificación de avance.
+     */
+    public static final int PROGRESS_INTERVAL = 500;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String CSV_HEADER =
+        "nombre,apellido_paterno,apellido_materno,fecha_ingreso,fecha_nacimiento,nss,curp,departamento,salario";
+    private static final String CSV_VACATION_HEADER = ",dias_vacaciones,monto_vacaciones,prima_vacacional,total";
+
+    private final Format format;
+    private final boolean includeVacation;
+
+    /**
+     * @param format Formato de salida
+     * @param includeVacation true para agregar el cálculo de vacaciones de cada empleado
+     * @throws IllegalArgumentException si el formato es nulo
+     */
+    public EmployeeExporter(Format format, boolean includeVacation) {
+        if (format == null) {
+            throw new IllegalArgumentException("El formato de exportación no puede ser nulo");
+        }
+        this.format = format;
+        this.includeVacation = includeVacation;
+    }
+
+    /**
+     * Escribe los empleados en el archivo destino, reemplazándolo si existe.
+     *
+     * @param employees Empleados a exportar (se consumen una sola vez)
+     * @param total Número de empleados esperado, para calcular el avance
+     * @param target Archivo destino
+     * @param listener Receptor del avance, o null
+     * @return Resultado con filas y bytes escritos
+     * @throws IOException si el archivo no se puede escribir
+     */
+    public ExportResult export(Stream<Employee> employees, int total, Path target,
+                               ProgressListener listener) throws IOException {
+        long start = System.nanoTime();
+        ExportResult result = new ExportResult();
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+
+            if (format == Format.CSV) {
+                out.write(CSV_HEADER);
+                if (includeVacation) {
+                    out.write(CSV_VACATION_HEADER);
+                }
+                out.write('\n');
+            }
+
+            Iterator<Employee> iterator = employees.iterator();
+            while (iterator.hasNext()) {
+                Employee emp = iterator.next();
+                VacationCalculator.VacationCalculationResult vacation = includeVacation ? calculateVacation(emp) : null;
+                if (format == Format.CSV) {
+                    writeCsvRow(out, emp, vacation);
+                } else {
+                    writeJsonLine(out, emp, vacation);
+                }
+                result.rows++;
+                if (listener != null && result.rows % PROGRESS_INTERVAL == 0) {
+                    listener.onProgress(result.rows, Math.max(total, result.rows));
+                }
+            }
+            out.flush();
+            result.bytes = channel.size();
+        }
+
+        if (listener != null) {
+            listener.onProgress(result.rows, result.rows);
+        }
+        result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return result;
+    }
+
+    // ---- Métodos auxiliares ----
+
+    // Un salario en cero o una fecha futura no detienen la exportación: se deja sin cálculo
+    private static VacationCalculator.VacationCalculationResult calculateVacation(Employee emp) {
+        try {
+            return VacationCalculator.calculate(emp, DEFAULT_VACATION_PERCENTAGE);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void writeCsvRow(Writer out, Employee emp,
+                             VacationCalculator.VacationCalculationResult vacation) throws IOException {
+        out.write(csvField(emp.getFirstName()));
+        out.write(',');
+        out.write(csvField(emp.getLastName()));
+        out.write(',');
+        out.write(csvField(emp.getMothersLastName()));
+        out.write(',');
+        out.write(emp.getHireDate().toString());
+        out.write(',');
+        out.write(emp.getBirthDate().toString());
+        out.write(',');
+        out.write(csvField(emp.getNss()));
+        out.write(',');
+        out.write(csvField(emp.getCurp()));
+        out.write(',');
+        out.write(csvField(emp.getDepartment()));
+        out.write(',');
+        out.write(money(emp.getMonthlySalary()));
+        if (includeVacation) {
+            if (vacation != null) {
+                out.write(',');
+                out.write(Integer.toString(vacation.getVacationDays()));
+                out.write(',');
+                out.write(money(vacation.getVacationAmount()));
+                out.write(',');
+                out.write(money(vacation.getVacationPremium()));
+                out.write(',');
+                out.write(money(vacation.getTotal()));
+            } else {
+                out.write(",,,,");
+            }
+        }
+        out.write('\n');
+    }
+
+    private void writeJsonLine(Writer out, Employee emp,
+                               VacationCalculator.VacationCalculationResult vacation) throws IOException {
+        out.write("{\"id\":");
+        out.write(Integer.toString(emp.getId()));
+        out.write(",\"nombre\":");
+        out.write(jsonString(emp.getFirstName()));
+        out.write(",\"apellido_paterno\":");
+        out.write(jsonString(emp.getLastName()));
+        out.write(",\"apellido_materno\":");
+        out.write(jsonString(emp.getMothersLastName()));
+        out.write(",\"fecha_ingreso\":\"");
+        out.write(emp.getHireDate().toString());
+        out.write("\",\"fecha_nacimiento\":\"");
+        out.write(emp.getBirthDate().toString());
+        out.write("\",\"nss\":");
+        out.write(jsonString(emp.getNss()));
+        out.write(",\"curp\":");
+        out.write(jsonString(emp.getCurp()));
+        out.write(",\"departamento\":");
+        out.write(jsonString(emp.getDepartment()));
+        out.write(",\"salario\":");
+        out.write(money(emp.getMonthlySalary()));
+        if (includeVacation) {
+            out.write(",\"vacaciones\":");
+            if (vacation != null) {
+                out.write("{\"dias\":");
+                out.write(Integer.toString(vacation.getVacationDays()));
+                out.write(",\"monto\":");
+                out.write(money(vacation.getVacationAmount()));
+                out.write(",\"prima\":");
+                out.write(money(vacation.getVacationPremium()));
+                out.write(",\"total\":");
+                out.write(money(vacation.getTotal()));
+                out.write('}');
+            } else {
+                out.write("null");
+            }
+        }
+        out.write("}\n");
+    }
+
+    private static String money(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    // Entrecomilla solo si el valor contiene separadores o comillas
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    static String jsonString(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Resultado de una exportación.
+     */
+    public static class ExportResult {
+        private int rows;
+        private long bytes;
+        private long elapsedMillis;
+
+        public int getRows() {
+            return rows;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package controllers;
+
+import models.Database;
+import models.Employee;
+import models.RetryPolicy;
+import models.SqliteEmployeeRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Importación masiva de empleados desde archivos CSV.
+ * <p>
+ * El archivo se procesa por bloques para mantener la memoria acotada:
+ * - Las filas de cada bloque se validan en paralelo
+ * - La unicidad de NSS y CURP se verifica contra un conjunto en memoria
+ *   cargado una sola vez desde la base de datos
+ * - Las filas válidas se insertan con addBatch/executeBatch en una
+ *   transacción por bloque, repetida con {@link Database#getRetryPolicy()}
+ *   si otra conexión tiene el bloqueo
+ * </p>
+ * Formato esperado (la primera línea es el encabezado y se ignora):
+ * <pre>
+ * nombre,apellido_paterno,apellido_materno,fecha_ingreso,fecha_nacimiento,nss,curp,departamento,salario
+ * </pre>
+ * Las fechas pueden venir como aaaa-mm-dd o dd/mm/aaaa. Los campos pueden ir
+ * entre comillas dobles; no se admiten saltos de línea dentro de un campo.
+ *
+ * @author Nelo Angelo
+ */
+public class EmployeeImporter {
+
+    /**
+     * Número de filas por bloque (y por transacción) por defecto.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private static final int COLUMN_COUNT = 9;
+    private static final DateTimeFormatter DISPLAY_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final String SELECT_KEYS_SQL = "SELECT nss, curp FROM employees";
+
+    private final int chunkSize;
+
+    public EmployeeImporter() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize Filas por bloque de validación e inserción
+     * @throws IllegalArgumentException si chunkSize no es positivo
+     */
+    public EmployeeImporter(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser mayor a cero");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Importa todas las filas válidas del archivo.
+     *
+     * @param csvFile Archivo CSV a importar
+     * @return Resultado de la importación con los errores por fila
+     * @throws IOException si el archivo no se puede leer
+     * @throws SQLException si falla la conexión con la base de datos
+     */
+    public ImportResult importCsv(Path csvFile) throws IOException, SQLException {
+        long start = System.nanoTime();
+        ImportResult result = new ImportResult();
+
+        try (Connection conn = Database.connect();
+             BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+
+            Set<String> knownNss = new HashSet<>();
+            Set<String> knownCurp = new HashSet<>();
+            loadExistingKeys(conn, knownNss, knownCurp);
+
+            List<String> lines = new ArrayList<>(chunkSize);
+            int firstLineOfChunk = 2;
+            int lineNumber = 1;
+
+            // La primera línea es el encabezado
+            reader.readLine();
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lines.isEmpty()) {
+                    firstLineOfChunk = lineNumber;
+                }
+                lines.add(line);
+                if (lines.size() == chunkSize) {
+                    processChunk(conn, lines, firstLineOfChunk, knownNss, knownCurp, result);
+                    lines.clear();
+                }
+            }
+            if (!lines.isEmpty()) {
+                processChunk(conn, lines, firstLineOfChunk, knownNss, knownCurp, result);
+            }
+        }
+
+        result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return result;
+    }
+
+    // ---- Métodos auxiliares ----
+
+    private void loadExistingKeys(Connection conn, Set<String> nss, Set<String> curp) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_KEYS_SQL)) {
+            while (rs.next()) {
+                nss.add(rs.getString(1));
+                curp.add(rs.getString(2));
+            }
+        }
+    }
+
+    private void processChunk(Connection conn, List<String> lines, int firstLine,
+                              Set<String> knownNss, Set<String> knownCurp,
+                              ImportResult result) throws SQLException {
+        int size = lines.size();
+        Employee[] parsed = new Employee[size];
+        String[] errors = new String[size];
+
+        // Validación en paralelo: cada fila es independiente
+        IntStream.range(0, size).parallel().forEach(i -> {
+            try {
+                parsed[i] = parseRow(lines.get(i));
+            } catch (IllegalArgumentException e) {
+                errors[i] = e.getMessage();
+            }
+        });
+
+        // Unicidad en orden de archivo, contra la BD y contra filas anteriores
+        List<Employee> accepted = new ArrayList<>(size);
+        List<Integer> acceptedLines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (lines.get(i).isBlank()) {
+                continue;
+            }
+            result.totalRows++;
+            if (errors[i] != null) {
+                result.addError(firstLine + i, errors[i]);
+                continue;
+            }
+            Employee emp = parsed[i];
+            if (knownNss.contains(emp.getNss())) {
+                result.addError(firstLine + i, "El NSS ya está registrado");
+            } else if (knownCurp.contains(emp.getCurp())) {
+                result.addError(firstLine + i, "La CURP ya está registrada");
+            } else {
+                knownNss.add(emp.getNss());
+                knownCurp.add(emp.getCurp());
+                accepted.add(emp);
+                acceptedLines.add(firstLine + i);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            insertChunk(conn, accepted, acceptedLines, result);
+        }
+    }
+
+    // Cada intento (lote o fila por fila) es una transacción completa, así que
+    // un bloqueo de otra conexión se resuelve repitiéndolo con la política de
+    // reintentos; solo una violación de restricción lleva a aislar las filas
+    private void insertChunk(Connection conn, List<Employee> employees, List<Integer> lineNumbers,
+                             ImportResult result) throws SQLException {
+        boolean inserted = Database.getRetryPolicy().execute(() -> insertBatch(conn, employees));
+        if (inserted) {
+            result.imported += employees.size();
+            return;
+        }
+        // El lote falló completo: se inserta fila por fila para aislar el error
+        List<String> rowErrors = Database.getRetryPolicy().execute(() -> insertOneByOne(conn, employees));
+        for (int i = 0; i < rowErrors.size(); i++) {
+            if (rowErrors.get(i) == null) {
+                result.imported++;
+            } else {
+                result.addError(lineNumbers.get(i), rowErrors.get(i));
+            }
+        }
+    }
+
+    // true si el lote se confirmó; false si lo rechazó una restricción
+    private boolean insertBatch(Connection conn, List<Employee> employees) throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(SqliteEmployeeRepository.INSERT_SQL)) {
+            for (Employee emp : employees) {
+                SqliteEmployeeRepository.setEmployeeParameters(pstmt, emp);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            conn.rollback();
+            if (RetryPolicy.isBusy(e)) {
+                throw e;
+            }
+            return false;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // Devuelve el error de cada fila (null si se insertó); un bloqueo deshace
+    // todo el intento para que la política de reintentos lo repita
+    private List<String> insertOneByOne(Connection conn, List<Employee> employees) throws SQLException {
+        List<String> rowErrors = new ArrayList<>(employees.size());
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(SqliteEmployeeRepository.INSERT_SQL)) {
+            for (Employee emp : employees) {
+                try {
+                    SqliteEmployeeRepository.setEmployeeParameters(pstmt, emp);
+                    pstmt.executeUpdate();
+                    rowErrors.add(null);
+                } catch (SQLException e) {
+                    if (RetryPolicy.isBusy(e)) {
+                        throw e;
+                    }
+                    // Otra conexión pudo registrar el mismo NSS o CURP tras cargar las claves
+                    IllegalArgumentException duplicate = SqliteEmployeeRepository.translateUniqueViolation(e);
+                    rowErrors.add(duplicate != null ? duplicate.getMessage()
+                            : "Error de base de datos: " + e.getMessage());
+                }
+            }
+            conn.commit();
+            return rowErrors;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Convierte una línea CSV en un empleado validado.
+     *
+     * @throws IllegalArgumentException con el motivo si la fila es inválida
+     */
+    static Employee parseRow(String line) {
+        if (line == null || line.isBlank()) {
+            throw new IllegalArgumentException("Fila vacía");
+        }
+        List<String> fields = splitCsvLine(line);
+        if (fields.size() != COLUMN_COUNT) {
+            throw new IllegalArgumentException("Se esperaban " + COLUMN_COUNT + " columnas y se encontraron " + fields.size());
+        }
+
+        Employee emp = new Employee("", "", null, LocalDate.now(), LocalDate.now().minusYears(25),
+                                    "", "", "", 0.0);
+        emp.setFirstName(fields.get(0));
+        emp.setLastName(fields.get(1));
+        emp.setMothersLastName(fields.get(2).trim().isEmpty() ? null : fields.get(2));
+        emp.setHireDate(parseDate(fields.get(3), "Fecha de Ingreso"));
+        emp.setBirthDate(parseDate(fields.get(4), "Fecha de Nacimiento"));
+        emp.setNss(fields.get(5).trim());
+        emp.setCurp(fields.get(6).trim().toUpperCase());
+        emp.setDepartment(fields.get(7));
+        emp.setMonthlySalary(parseSalary(fields.get(8)));
+        return emp;
+    }
+
+    private static LocalDate parseDate(String value, String fieldName) {
+        String text = value.trim();
+        try {
+            return text.contains("/") ? LocalDate.parse(text, DISPLAY_DATE) : LocalDate.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(fieldName + " debe tener formato aaaa-mm-dd o dd/mm/aaaa");
+        }
+    }
+
+    private static double parseSalary(String value) {
+        try {
+            return Double.parseDouble(value.trim().replace(",", "").replace("$", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Salario debe ser un número válido");
+        }
+    }
+
+    // Divide una línea CSV respetando comillas dobles ("" representa una comilla)
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>(COLUMN_COUNT);
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (inQuotes) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    /**
+     * Error de validación o inserción de una fila del archivo.
+     */
+    public static class RowError {
+        private final int lineNumber;
+        private final String message;
+
+        RowError(int lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "Línea " + lineNumber + ": " + message;
+        }
+    }
+
+    /**
+     * Resultado de una importación.
+     */
+    public static class ImportResult {
+        private int totalRows;
+        private int imported;
+        private long elapsedMillis;
+        private final List<RowError> errors = new ArrayList<>();
+
+        void addError(int lineNumber, String message) {
+            errors.add(new RowError(lineNumber, message));
+        }
+
+        public int getTotalRows() {
+            return totalRows;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+
+        public int getRejected() {
+            return errors.size();
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public List<RowError> getErrors() {
+            return Collections.unmodifiableList(errors);
+        }
+    }
+}
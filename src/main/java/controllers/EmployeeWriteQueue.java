@@ -0,0 +1,353 @@
+package controllers;
+
+import models.Database;
+import models.Employee;
+import models.RetryPolicy;
+import models.SqliteEmployeeRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Cola de escritura asíncrona para altas, cambios y bajas de empleados.
+ * <p>
+ * Las vistas no esperan el commit en el hilo de la interfaz:
+ * - Cada operación entra a una cola acotada y el llamador recibe un
+ *   CompletableFuture con el resultado (id generado, o true/false)
+ * - Un único hilo escritor toma las operaciones pendientes y las confirma en
+ *   grupo: hasta {@code maxGroupSize} operaciones o lo que llegue dentro de
+ *   {@code groupWindowMillis}, en una sola transacción (un solo fsync)
+ * - Cada operación corre dentro de un SAVEPOINT, así que un NSS o CURP
+ *   duplicado solo falla su propio futuro y no el grupo completo
+ * - Si el grupo choca con un bloqueo de otra conexión se repite completo
+ *   según {@link Database#getRetryPolicy()}
+ * </p>
+ * Los futuros se completan después del commit, por lo que un resultado
+ * exitoso significa que el cambio ya es durable.
+ *
+ * @author Nelo Angelo
+ */
+public class EmployeeWriteQueue {
+
+    /**
+     * Operaciones pendientes máximas por defecto.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Operaciones máximas por transacción por defecto.
+     */
+    public static final int DEFAULT_MAX_GROUP_SIZE = 64;
+
+    /**
+     * Milisegundos que el escritor espera más operaciones antes de confirmar.
+     */
+    public static final long DEFAULT_GROUP_WINDOW_MILLIS = 5;
+
+    /**
+     * Operación de escritura que se ejecuta con la conexión del escritor.
+     */
+    @FunctionalInterface
+    interface Mutation<T> {
+        T apply(Connection conn) throws SQLException;
+    }
+
+    // Marca de fin: el escritor confirma lo que tomó antes de ella y termina.
+    // Se usa en lugar de interrupt(), que haría fallar la conexión del grupo en curso
+    private static final PendingWrite<Void> STOP = new PendingWrite<>("detener", null, null);
+
+    private final BlockingQueue<PendingWrite<?>> queue;
+    private final int maxGroupSize;
+    private final long groupWindowNanos;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    public EmployeeWriteQueue() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_GROUP_SIZE, DEFAULT_GROUP_WINDOW_MILLIS);
+    }
+
+    /**
+     * @param capacity Operaciones pendientes máximas antes de rechazar nuevas
+     * @param maxGroupSize Operaciones máximas por transacción
+     * @param groupWindowMillis Espera máxima para completar un grupo
+     * @throws IllegalArgumentException si algún valor es inválido
+     */
+    public EmployeeWriteQueue(int capacity, int maxGroupSize, long groupWindowMillis) {
+        if (capacity <= 0 || maxGroupSize <= 0) {
+            throw new IllegalArgumentException("La capacidad y el tamaño de grupo deben ser mayores a cero");
+        }
+        if (groupWindowMillis < 0) {
+            throw new IllegalArgumentException("La ventana de grupo no puede ser negativa");
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxGroupSize = maxGroupSize;
+        this.groupWindowNanos = TimeUnit.MILLISECONDS.toNanos(groupWindowMillis);
+        this.writer = new Thread(this::runWriter, "employee-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Encola el alta de un empleado. Al confirmarse se asigna el id generado
+     * al propio objeto.
+     *
+     * @param employee Empleado a registrar
+     * @return Futuro con el id generado, o con IllegalArgumentException si el
+     *         NSS o la CURP ya están registrados
+     * @throws IllegalArgumentException si el empleado es nulo
+     */
+    public CompletableFuture<Integer> submitAdd(Employee employee) {
+        if (employee == null) {
+            throw new IllegalArgumentException("El empleado no puede ser nulo");
+        }
+        // El id se asigna hasta confirmar el grupo: un grupo revertido o
+        // reintentado no deja al llamador con un id que nunca se guardó
+        return submit("agregar empleado", conn -> SqliteEmployeeRepository.insertEmployee(conn, employee),
+                employee::setId);
+    }
+
+    /**
+     * Encola la actualización de un empleado.
+     *
+     * @param employee Empleado con los datos nuevos
+     * @return Futuro con true si el empleado existía
+     * @throws IllegalArgumentException si el empleado es nulo o no tiene id
+     */
+    public CompletableFuture<Boolean> submitUpdate(Employee employee) {
+        if (employee == null || employee.getId() <= 0) {
+            throw new IllegalArgumentException("Empleado inválido para actualización");
+        }
+        return submit("actualizar empleado", conn -> SqliteEmployeeRepository.updateEmployeeRow(conn, employee));
+    }
+
+    /**
+     * Encola la baja de un empleado.
+     *
+     * @param id ID del empleado a eliminar
+     * @return Futuro con true si el empleado existía
+     * @throws IllegalArgumentException si el id no es válido
+     */
+    public CompletableFuture<Boolean> submitDelete(int id) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("ID de empleado inválido");
+        }
+        return submit("eliminar empleado", conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(SqliteEmployeeRepository.DELETE_SQL)) {
+                pstmt.setInt(1, id);
+                return pstmt.executeUpdate() > 0;
+            }
+        });
+    }
+
+    /**
+     * Operaciones que esperan turno en la cola.
+     * @return Número de operaciones pendientes
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Deja de aceptar operaciones, confirma las pendientes y detiene el hilo
+     * escritor. El grupo en curso y los encolados antes del cierre terminan
+     * de confirmarse.
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            // Con la cola llena se espera a que el escritor libere lugar
+            if (queue.offer(STOP, 30, TimeUnit.SECONDS)) {
+                writer.join(TimeUnit.SECONDS.toMillis(30));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Operaciones que llegaron mientras el escritor terminaba
+        PendingWrite<?> late;
+        while ((late = queue.poll()) != null) {
+            late.future.completeExceptionally(new RejectedExecutionException("La cola de escritura está cerrada"));
+        }
+    }
+
+    // ---- Métodos auxiliares ----
+
+    private <T> CompletableFuture<T> submit(String action, Mutation<T> mutation) {
+        return submit(action, mutation, null);
+    }
+
+    private <T> CompletableFuture<T> submit(String action, Mutation<T> mutation, Consumer<T> onCommit) {
+        PendingWrite<T> write = new PendingWrite<>(action, mutation, onCommit);
+        if (closed) {
+            write.future.completeExceptionally(new RejectedExecutionException("La cola de escritura está cerrada"));
+        } else if (!queue.offer(write)) {
+            // Se rechaza en lugar de bloquear: el llamador suele ser el hilo de la interfaz
+            write.future.completeExceptionally(new RejectedExecutionException("La cola de escritura está llena"));
+        }
+        return write.future;
+    }
+
+    private void runWriter() {
+        List<PendingWrite<?>> group = new ArrayList<>(maxGroupSize);
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                stopping = collectGroup(group);
+            } catch (InterruptedException e) {
+                // Nadie más interrumpe al escritor: se confirma lo tomado y se termina
+                stopping = true;
+            }
+            if (!group.isEmpty()) {
+                try {
+                    commitGroup(group);
+                } catch (RuntimeException e) {
+                    // Un error inesperado no debe detener al único hilo escritor
+                    System.err.println("Error inesperado en el hilo escritor: " + e);
+                    failGroup(group, new RuntimeException("Error inesperado al guardar empleados", e));
+                }
+                group.clear();
+            }
+        }
+    }
+
+    // Devuelve true si encontró la marca de fin
+    private boolean collectGroup(List<PendingWrite<?>> group) throws InterruptedException {
+        PendingWrite<?> first = queue.take();
+        if (first == STOP) {
+            return true;
+        }
+        group.add(first);
+        long deadline = System.nanoTime() + groupWindowNanos;
+        while (group.size() < maxGroupSize) {
+            long remaining = deadline - System.nanoTime();
+            PendingWrite<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                return false;
+            }
+            if (next == STOP) {
+                return true;
+            }
+            group.add(next);
+        }
+        return false;
+    }
+
+    private void commitGroup(List<PendingWrite<?>> group) {
+        try {
+            // Si otra conexión tiene el bloqueo se repite el grupo completo:
+            // el rollback deja la base como estaba antes del intento
+            Database.getRetryPolicy().execute(() -> {
+                attemptGroup(group);
+                return null;
+            });
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Error al confirmar grupo de escrituras: " + e.getMessage());
+            failGroup(group, new RuntimeException("Error de base de datos al guardar empleados", e));
+            return;
+        }
+        for (PendingWrite<?> write : group) {
+            write.complete();
+        }
+    }
+
+    // Los futuros ya completados no cambian
+    private static void failGroup(List<PendingWrite<?>> group, RuntimeException failure) {
+        for (PendingWrite<?> write : group) {
+            write.future.completeExceptionally(failure);
+        }
+    }
+
+    private void attemptGroup(List<PendingWrite<?>> group) throws SQLException {
+        try (Connection conn = Database.connect()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                for (PendingWrite<?> write : group) {
+                    write.reset();
+                    stmt.execute("SAVEPOINT employee_write");
+                    try {
+                        write.run(conn);
+                    } catch (SQLException e) {
+                        if (RetryPolicy.isBusy(e)) {
+                            throw e;
+                        }
+                        stmt.execute("ROLLBACK TO employee_write");
+                        write.failure = translate(write.action, e);
+                    } catch (RuntimeException e) {
+                        // Solo falla el futuro de esta operación
+                        stmt.execute("ROLLBACK TO employee_write");
+                        System.err.println("Error al " + write.action + ": " + e.getMessage());
+                        write.failure = e;
+                    }
+                    stmt.execute("RELEASE employee_write");
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static RuntimeException translate(String action, SQLException e) {
+        IllegalArgumentException duplicate = SqliteEmployeeRepository.translateUniqueViolation(e);
+        if (duplicate != null) {
+            return duplicate;
+        }
+        System.err.println("Error al " + action + ": " + e.getMessage());
+        return new RuntimeException("Error de base de datos al " + action, e);
+    }
+
+    /**
+     * Operación encolada junto con su futuro.
+     */
+    private static class PendingWrite<T> {
+        private final String action;
+        private final Mutation<T> mutation;
+        private final Consumer<T> onCommit;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private RuntimeException failure;
+
+        PendingWrite(String action, Mutation<T> mutation, Consumer<T> onCommit) {
+            this.action = action;
+            this.mutation = mutation;
+            this.onCommit = onCommit;
+        }
+
+        void reset() {
+            result = null;
+            failure = null;
+        }
+
+        void run(Connection conn) throws SQLException {
+            result = mutation.apply(conn);
+        }
+
+        void complete() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+                return;
+            }
+            try {
+                if (onCommit != null) {
+                    onCommit.accept(result);
+                }
+                future.complete(result);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
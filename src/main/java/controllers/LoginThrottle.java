@@ -0,0 +1,308 @@
+package controllers;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Límite de intentos fallidos de inicio de sesión.
+ * <p>
+ * Cada contraseña incorrecta cuesta una verificación BCrypt completa, así
+ * que los intentos repetidos se frenan antes de hashear:
+ * - Los fallos se cuentan por nombre de usuario y por origen (equipo), en
+ *   cubetas de tiempo dentro de una ventana deslizante
+ * - Pasados los fallos libres, cada intento debe esperar un tiempo que se
+ *   duplica con cada fallo, hasta un máximo
+ * - Al llegar al umbral de bloqueo, la clave queda bloqueada un tiempo fijo
+ * - Un inicio de sesión correcto reinicia el contador del usuario
+ * </p>
+ * Los contadores se protegen con candados por franjas (lock striping): dos
+ * claves solo compiten si caen en la misma franja. Los valores por origen
+ * son más altos porque un equipo compartido atiende a varios usuarios.
+ *
+ * @author Nelo Angelo
+ */
+public class LoginThrottle {
+
+    public static final int DEFAULT_USER_FREE_FAILURES = 3;
+    public static final int DEFAULT_USER_LOCKOUT_FAILURES = 10;
+    public static final int DEFAULT_SOURCE_FREE_FAILURES = 20;
+    public static final int DEFAULT_SOURCE_LOCKOUT_FAILURES = 100;
+    public static final long DEFAULT_BASE_DELAY_MS = 1000;
+    public static final long DEFAULT_MAX_DELAY_MS = 60 * 1000L;
+    public static final long DEFAULT_LOCKOUT_MS = 15 * 60 * 1000L;
+    public static final long DEFAULT_WINDOW_MS = 15 * 60 * 1000L;
+
+    private static final int BUCKETS = 15;
+    private static final int STRIPES = 32;
+    // Por encima de esta cantidad de claves se descartan las inactivas
+    private static final int MAX_TRACKED_KEYS = 10_000;
+
+    private final FailureTable users;
+    private final FailureTable sources;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long lockoutMillis;
+    private final long bucketMillis;
+    private final LongSupplier clock;
+
+    // Estadísticas
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder lockouts = new LongAdder();
+
+    /**
+     * Crea un límite con los valores por defecto.
+     */
+    public LoginThrottle() {
+        this(DEFAULT_USER_FREE_FAILURES, DEFAULT_USER_LOCKOUT_FAILURES,
+             DEFAULT_SOURCE_FREE_FAILURES, DEFAULT_SOURCE_LOCKOUT_FAILURES,
+             DEFAULT_BASE_DELAY_MS, DEFAULT_MAX_DELAY_MS, DEFAULT_LOCKOUT_MS, DEFAULT_WINDOW_MS,
+             System::currentTimeMillis);
+    }
+
+    /**
+     * @param userFreeFailures Fallos por usuario sin espera
+     * @param userLockoutFailures Fallos por usuario que provocan bloqueo
+     * @param sourceFreeFailures Fallos por origen sin espera
+     * @param sourceLockoutFailures Fallos por origen que provocan bloqueo
+     * @param baseDelayMillis Espera tras el primer fallo no libre
+     * @param maxDelayMillis Espera máxima entre intentos
+     * @param lockoutMillis Duración del bloqueo
+     * @param windowMillis Ventana en que se cuentan los fallos
+     * @param clock Reloj en milisegundos
+     * @throws IllegalArgumentException si algún valor es inválido
+     */
+    LoginThrottle(int userFreeFailures, int userLockoutFailures,
+                  int sourceFreeFailures, int sourceLockoutFailures,
+                  long baseDelayMillis, long maxDelayMillis, long lockoutMillis, long windowMillis,
+                  LongSupplier clock) {
+        if (baseDelayMillis <= 0 || maxDelayMillis < baseDelayMillis || lockoutMillis <= 0 || windowMillis < BUCKETS) {
+            throw new IllegalArgumentException("Los tiempos del límite de intentos son inválidos");
+        }
+        this.users = new FailureTable(userFreeFailures, userLockoutFailures);
+        this.sources = new FailureTable(sourceFreeFailures, sourceLockoutFailures);
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.lockoutMillis = lockoutMillis;
+        this.bucketMillis = windowMillis / BUCKETS;
+        this.clock = clock;
+    }
+
+    /**
+     * Indica cuánto debe esperar un intento antes de verificarse. Un intento
+     * con espera pendiente cuenta como rechazado.
+     * @param username Nombre de usuario
+     * @param source Origen del intento
+     * @return Milisegundos de espera; 0 si el intento puede verificarse
+     */
+    public long checkAllowed(String username, String source) {
+        long now = clock.getAsLong();
+        long wait = Math.max(users.waitMillis(userKey(username), now), sources.waitMillis(source, now));
+        if (wait > 0) {
+            rejected.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Registra un intento fallido (usuario inexistente o contraseña incorrecta).
+     * @param username Nombre de usuario
+     * @param source Origen del intento
+     */
+    public void recordFailure(String username, String source) {
+        long now = clock.getAsLong();
+        failures.increment();
+        users.recordFailure(userKey(username), now);
+        sources.recordFailure(source, now);
+    }
+
+    /**
+     * Reinicia el contador del usuario tras un inicio de sesión correcto.
+     * @param username Nombre de usuario
+     */
+    public void recordSuccess(String username) {
+        users.reset(userKey(username));
+    }
+
+    /**
+     * @return Instantánea de los intentos rechazados, fallidos y bloqueos
+     */
+    public Stats getStats() {
+        return new Stats(rejected.sum(), failures.sum(), lockouts.sum(), users.size() + sources.size());
+    }
+
+    private static String userKey(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private long delayFor(int failuresInWindow, int freeFailures) {
+        int extra = failuresInWindow - freeFailures;
+        if (extra <= 0) {
+            return 0;
+        }
+        // 2^(extra-1) sin desbordar: el tope se alcanza mucho antes
+        return Math.min(maxDelayMillis, baseDelayMillis << Math.min(extra - 1, 30));
+    }
+
+    /**
+     * Contadores de fallos de un tipo de clave (usuarios u orígenes).
+     */
+    private class FailureTable {
+        private final int freeFailures;
+        private final int lockoutFailures;
+        private final Map<String, FailureRecord> records = new ConcurrentHashMap<>();
+        private final Object[] locks = new Object[STRIPES];
+
+        FailureTable(int freeFailures, int lockoutFailures) {
+            if (freeFailures < 0 || lockoutFailures <= freeFailures) {
+                throw new IllegalArgumentException("El umbral de bloqueo debe ser mayor a los fallos libres");
+            }
+            this.freeFailures = freeFailures;
+            this.lockoutFailures = lockoutFailures;
+            for (int i = 0; i < STRIPES; i++) {
+                locks[i] = new Object();
+            }
+        }
+
+        long waitMillis(String key, long now) {
+            FailureRecord record = records.get(key);
+            if (record == null) {
+                return 0;
+            }
+            synchronized (lockFor(key)) {
+                if (record.lockedUntil > now) {
+                    return record.lockedUntil - now;
+                }
+                long delay = delayFor(record.count(now / bucketMillis), freeFailures);
+                return Math.max(0, record.lastFailure + delay - now);
+            }
+        }
+
+        void recordFailure(String key, long now) {
+            if (records.size() > MAX_TRACKED_KEYS) {
+                purgeIdle(now);
+            }
+            FailureRecord record = records.computeIfAbsent(key, k -> new FailureRecord());
+            synchronized (lockFor(key)) {
+                long bucket = now / bucketMillis;
+                record.add(bucket);
+                record.lastFailure = now;
+                if (record.count(bucket) >= lockoutFailures && record.lockedUntil <= now) {
+                    record.lockedUntil = now + lockoutMillis;
+                    lockouts.increment();
+                }
+            }
+        }
+
+        void reset(String key) {
+            synchronized (lockFor(key)) {
+                records.remove(key);
+            }
+        }
+
+        int size() {
+            return records.size();
+        }
+
+        private void purgeIdle(long now) {
+            long bucket = now / bucketMillis;
+            for (Iterator<Map.Entry<String, FailureRecord>> it = records.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, FailureRecord> entry = it.next();
+                synchronized (lockFor(entry.getKey())) {
+                    FailureRecord record = entry.getValue();
+                    if (record.lockedUntil <= now && record.count(bucket) == 0) {
+                        it.remove();
+                    }
+                }
+            }
+        }
+
+        private Object lockFor(String key) {
+            int h = key.hashCode();
+            return locks[(h ^ (h >>> 16)) & (STRIPES - 1)];
+        }
+    }
+
+    /**
+     * Fallos de una clave en cubetas circulares; se modifica con el candado de su franja.
+     */
+    private static class FailureRecord {
+        private final long[] bucketIds = new long[BUCKETS];
+        private final int[] bucketCounts = new int[BUCKETS];
+        private long lastFailure;
+        private long lockedUntil;
+
+        void add(long bucket) {
+            int slot = (int) (bucket % BUCKETS);
+            if (bucketIds[slot] != bucket) {
+                bucketIds[slot] = bucket;
+                bucketCounts[slot] = 0;
+            }
+            bucketCounts[slot]++;
+        }
+
+        // Fallos en las cubetas que siguen dentro de la ventana
+        int count(long currentBucket) {
+            int total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (currentBucket - bucketIds[i] < BUCKETS) {
+                    total += bucketCounts[i];
+                }
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Instantánea de las estadísticas del límite de intentos.
+     */
+    public static class Stats {
+        private final long rejected;
+        private final long failures;
+        private final long lockouts;
+        private final int trackedKeys;
+
+        Stats(long rejected, long failures, long lockouts, int trackedKeys) {
+            this.rejected = rejected;
+            this.failures = failures;
+            this.lockouts = lockouts;
+            this.trackedKeys = trackedKeys;
+        }
+
+        /**
+         * @return Intentos rechazados sin verificar la contraseña
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public long getLockouts() {
+            return lockouts;
+        }
+
+        /**
+         * @return Usuarios y orígenes con fallos registrados
+         */
+        public int getTrackedKeys() {
+            return trackedKeys;
+        }
+
+        @Override
+        public String toString() {
+            return "LoginThrottleStats{" +
+                   "rechazados=" + rejected +
+                   ", fallidos=" + failures +
+                   ", bloqueos=" + lockouts +
+                   ", claves=" + trackedKeys +
+                   '}';
+        }
+    }
+}
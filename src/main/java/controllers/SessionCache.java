@@ -0,0 +1,147 @@
+package controllers;
+
+import models.User;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché de sesiones iniciadas, acotada y con expiración.
+ * <p>
+ * Las sesiones se guardan por el hash del token (nunca el token en sí):
+ * - Validar una sesión es una búsqueda en un mapa, sin BCrypt ni consultas
+ * - Cada sesión vence {@code ttlMillis} después de iniciarse
+ * - Con más de {@code maxEntries} sesiones se descarta la usada hace más tiempo
+ * </p>
+ * Los datos del usuario se copian al iniciar la sesión; AuthController la
+ * invalida cuando cambian la contraseña, el rol o el usuario se elimina.
+ *
+ * @author Nelo Angelo
+ */
+public class SessionCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Session> sessions;
+
+    /**
+     * @param maxEntries Sesiones máximas en memoria
+     * @param ttlMillis Duración de cada sesión
+     * @throws IllegalArgumentException si algún valor no es positivo
+     */
+    public SessionCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, System::currentTimeMillis);
+    }
+
+    SessionCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        if (maxEntries <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("El tamaño y la duración de las sesiones deben ser mayores a cero");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        // Orden de acceso: la primera entrada es la usada hace más tiempo
+        this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Session> eldest) {
+                return size() > SessionCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Registra una sesión que vence dentro de {@code ttlMillis}.
+     * @param tokenHash Hash del token de la sesión
+     * @param user Usuario autenticado
+     * @return Momento de vencimiento (milisegundos desde 1970)
+     */
+    public synchronized long put(String tokenHash, User user) {
+        long expiresAt = clock.getAsLong() + ttlMillis;
+        sessions.put(tokenHash, new Session(user.getId(), user.getUsername(), user.isAdmin(), expiresAt));
+        return expiresAt;
+    }
+
+    /**
+     * Registra una sesión con un vencimiento conocido (leída de la base de datos).
+     * @param tokenHash Hash del token de la sesión
+     * @param user Usuario de la sesión
+     * @param expiresAt Momento de vencimiento
+     */
+    public synchronized void put(String tokenHash, User user, long expiresAt) {
+        sessions.put(tokenHash, new Session(user.getId(), user.getUsername(), user.isAdmin(), expiresAt));
+    }
+
+    /**
+     * @param tokenHash Hash del token de la sesión
+     * @return Usuario sin contraseña, o null si no existe o ya venció
+     */
+    public synchronized User get(String tokenHash) {
+        Session session = sessions.get(tokenHash);
+        if (session == null) {
+            return null;
+        }
+        if (session.expiresAt <= clock.getAsLong()) {
+            sessions.remove(tokenHash);
+            return null;
+        }
+        return new User(session.userId, session.username, "", session.admin);
+    }
+
+    /**
+     * @param tokenHash Hash del token de la sesión a terminar
+     */
+    public synchronized void remove(String tokenHash) {
+        sessions.remove(tokenHash);
+    }
+
+    /**
+     * Termina todas las sesiones de un usuario.
+     * @param userId ID del usuario
+     */
+    public synchronized void removeUser(int userId) {
+        sessions.values().removeIf(session -> session.userId == userId);
+    }
+
+    /**
+     * Descarta las sesiones vencidas.
+     * @return Sesiones descartadas
+     */
+    public synchronized int purgeExpired() {
+        long now = clock.getAsLong();
+        int removed = 0;
+        for (Iterator<Session> it = sessions.values().iterator(); it.hasNext(); ) {
+            if (it.next().expiresAt <= now) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized int size() {
+        return sessions.size();
+    }
+
+    public synchronized void clear() {
+        sessions.clear();
+    }
+
+    private static class Session {
+        private final int userId;
+        private final String username;
+        private final boolean admin;
+        private final long expiresAt;
+
+        Session(int userId, String username, boolean admin, long expiresAt) {
+            this.userId = userId;
+            this.username = username;
+            this.admin = admin;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package models;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool acotado de conexiones JDBC reutilizables.
+ * <p>
+ * Responsabilidades:
+ * - Limitar el número de conexiones físicas abiertas al mismo tiempo
+ * - Reutilizar conexiones ya abiertas en lugar de abrir el archivo en cada consulta
+ * - Validar las conexiones antes de entregarlas
+ * - Cerrar las conexiones que permanecen inactivas demasiado tiempo
+ * - Exponer estadísticas de uso
+ * </p>
+ * Las conexiones entregadas son envoltorios: al llamar {@code close()} la
+ * conexión física regresa al pool en lugar de cerrarse.
+ *
+ * @author Nelo Angelo
+ */
+public class ConnectionPool {
+
+    /**
+     * Crea conexiones físicas nuevas para el pool.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    // Segundos permitidos para validar una conexión inactiva
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long acquireTimeoutMillis;
+    private final Semaphore permits;
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    // Estadísticas
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    /**
+     * Crea un pool de conexiones.
+     *
+     * @param factory Fábrica de conexiones físicas
+     * @param maxSize Número máximo de conexiones simultáneas
+     * @param idleTimeoutMillis Tiempo máximo de inactividad antes de cerrar una conexión
+     * @param acquireTimeoutMillis Tiempo máximo de espera por una conexión libre
+     * @throws IllegalArgumentException si algún parámetro es inválido
+     */
+    public ConnectionPool(ConnectionFactory factory, int maxSize, long idleTimeoutMillis, long acquireTimeoutMillis) {
+        if (factory == null) {
+            throw new IllegalArgumentException("La fábrica de conexiones no puede ser nula");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("El tamaño del pool debe ser mayor a cero");
+        }
+        if (idleTimeoutMillis <= 0 || acquireTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Los tiempos de espera deben ser mayores a cero");
+        }
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleAtFixedRate(this::evictIdleConnections, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Obtiene una conexión del pool, reutilizando una inactiva si existe.
+     *
+     * @return Conexión lista para usarse; debe cerrarse para devolverla al pool
+     * @throws SQLException si el pool está cerrado, se agota el tiempo de espera
+     *                      o no se puede abrir una conexión nueva
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Tiempo de espera agotado al obtener una conexión del pool");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido mientras se esperaba una conexión", e);
+        }
+
+        try {
+            Connection physical = takeIdleConnection();
+            if (physical != null) {
+                reused.incrementAndGet();
+            } else {
+                physical = factory.create();
+                created.incrementAndGet();
+            }
+            return wrap(physical);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Cierra todas las conexiones inactivas y rechaza nuevas solicitudes.
+     * Las conexiones prestadas se cierran al devolverse.
+     */
+    public void close() {
+        evictor.shutdownNow();
+        List<IdleConnection> toClose;
+        synchronized (idle) {
+            // Dentro del candado: release() vuelve a revisarlo antes de encolar
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+        }
+        for (IdleConnection entry : toClose) {
+            closeQuietly(entry.connection);
+        }
+    }
+
+    /**
+     * Obtiene una instantánea de las estadísticas del pool.
+     *
+     * @return Estadísticas actuales
+     */
+    public Stats getStats() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        return new Stats(
+            maxSize,
+            maxSize - permits.availablePermits(),
+            idleCount,
+            created.get(),
+            reused.get(),
+            evicted.get(),
+            validationFailures.get(),
+            timeouts.get()
+        );
+    }
+
+    // ---- Métodos auxiliares ----
+
+    private Connection takeIdleConnection() {
+        while (true) {
+            IdleConnection entry;
+            synchronized (idle) {
+                // LIFO: la conexión usada más recientemente es la más "caliente"
+                entry = idle.pollFirst();
+            }
+            if (entry == null) {
+                return null;
+            }
+            if (isUsable(entry.connection)) {
+                return entry.connection;
+            }
+            validationFailures.incrementAndGet();
+            closeQuietly(entry.connection);
+        }
+    }
+
+    private boolean isUsable(Connection conn) {
+        try {
+            return !conn.isClosed() && conn.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(Connection physical) {
+        try {
+            boolean pooled = false;
+            if (!closed && resetState(physical)) {
+                synchronized (idle) {
+                    // close() pudo vaciar la lista mientras se reiniciaba la conexión
+                    if (!closed) {
+                        idle.addFirst(new IdleConnection(physical, System.currentTimeMillis()));
+                        pooled = true;
+                    }
+                }
+            }
+            if (!pooled) {
+                closeQuietly(physical);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Deja la conexión como recién abierta antes de reutilizarla
+    private boolean resetState(Connection conn) {
+        try {
+            if (conn.isClosed()) {
+                return false;
+            }
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            conn.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Conexión descartada al devolverla al pool: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void evictIdleConnections() {
+        long limit = System.currentTimeMillis() - idleTimeoutMillis;
+        List<Connection> expired = new ArrayList<>();
+        synchronized (idle) {
+            Iterator<IdleConnection> it = idle.iterator();
+            while (it.hasNext()) {
+                IdleConnection entry = it.next();
+                if (entry.idleSince < limit) {
+                    it.remove();
+                    expired.add(entry.connection);
+                }
+            }
+        }
+        for (Connection conn : expired) {
+            evicted.incrementAndGet();
+            closeQuietly(conn);
+        }
+    }
+
+    private Connection wrap(Connection physical) {
+        return (Connection) Proxy.newProxyInstance(
+            ConnectionPool.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            new PooledConnectionHandler(physical)
+        );
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar conexión: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Conexión física en espera junto con el momento en que quedó libre.
+     */
+    private static class IdleConnection {
+        private final Connection connection;
+        private final long idleSince;
+
+        IdleConnection(Connection connection, long idleSince) {
+            this.connection = connection;
+            this.idleSince = idleSince;
+        }
+    }
+
+    /**
+     * Intercepta {@code close()} para devolver la conexión física al pool.
+     */
+    private class PooledConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+        private final AtomicBoolean returned = new AtomicBoolean(false);
+
+        PooledConnectionHandler(Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(physical);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                default:
+                    break;
+            }
+
+            if (returned.get()) {
+                throw new SQLException("La conexión ya fue devuelta al pool");
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Instantánea de las estadísticas del pool.
+     */
+    public static class Stats {
+        private final int maxSize;
+        private final int active;
+        private final int idle;
+        private final long created;
+        private final long reused;
+        private final long evicted;
+        private final long validationFailures;
+        private final long timeouts;
+
+        Stats(int maxSize, int active, int idle, long created, long reused,
+              long evicted, long validationFailures, long timeouts) {
+            this.maxSize = maxSize;
+            this.active = active;
+            this.idle = idle;
+            this.created = created;
+            this.reused = reused;
+            this.evicted = evicted;
+            this.validationFailures = validationFailures;
+            this.timeouts = timeouts;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public int getIdle() {
+            return idle;
+        }
+
+        public long getCreated() {
+            return created;
+        }
+
+        public long getReused() {
+            return reused;
+        }
+
+        public long getEvicted() {
+            return evicted;
+        }
+
+        public long getValidationFailures() {
+            return validationFailures;
+        }
+
+        public long getTimeouts() {
+            return timeouts;
+        }
+
+        @Override
+        public String toString() {
+            return "PoolStats{" +
+                   "max=" + maxSize +
+                   ", activas=" + active +
+                   ", inactivas=" + idle +
+                   ", creadas=" + created +
+                   ", reutilizadas=" + reused +
+                   ", desalojadas=" + evicted +
+                   ", invalidas=" + validationFailures +
+                   ", timeouts=" + timeouts +
+                   '}';
+        }
+    }
+}
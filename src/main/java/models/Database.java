@@ -1,16 +1,25 @@
 package models;
 
-import org.mindrot.jbcrypt.BCrypt;
+import org.sqlite.SQLiteConfig;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
 
 /**
  *
  * * Maneja la conexión e inicialización de la base de datos SQLite.
  * <p>
  * Responsabilidades:
- * - Configuración de la conexión JDBC
+ * - Configuración de la conexión JDBC (archivo o memoria) y del pool de conexiones
  * - Creación de tablas (empleados y usuarios)
- * - Migración de datos
+ * - Migración de datos con versiones de esquema (PRAGMA user_version)
  * - Validación de estructura
  * </p>
  * @author Nelo Angelo
@@ -19,43 +28,662 @@ import java.sql.*;
 public class Database {
     
     /**
-     * URL de conexión a la base de datos SQLite.
+     * URL de conexión por defecto a la base de datos SQLite.
      * <p>
      * La base de datos se almacena en un archivo 'vacation_system.db'
      * en el directorio de ejecución de la aplicación.
      * </p>
      */
-    private static final String URL = "jdbc:sqlite:vacation_system.db";
+    public static final String DEFAULT_URL = "jdbc:sqlite:vacation_system.db";
+
+    /**
+     * URL de una base de datos en memoria compartida por todas las conexiones
+     * del proceso. Se elige también con el valor abreviado {@code memory}.
+     */
+    public static final String SHARED_MEMORY_URL = "jdbc:sqlite:file::memory:?cache=shared";
+
+    /**
+     * Archivo de configuración opcional (formato .properties) que se lee si
+     * no se indica otro con la propiedad del sistema {@code vacation.config}.
+     */
+    public static final String DEFAULT_CONFIG_FILE = "vacation.properties";
+
+    // Misma llave como propiedad del sistema y en el archivo de configuración
+    private static final String URL_PROPERTY = "vacation.db.url";
+    private static final String URL_ENV = "VACATION_DB_URL";
+
+    /**
+     * Tamaño por defecto del pool de conexiones.
+     * Puede cambiarse con la propiedad del sistema {@code vacation.db.pool.size}.
+     */
+    private static final int DEFAULT_POOL_SIZE = 8;
+
+    /**
+     * Tamaño por defecto del pool de conexiones de solo lectura.
+     * Puede cambiarse con la propiedad del sistema {@code vacation.db.readPool.size}.
+     */
+    private static final int DEFAULT_READ_POOL_SIZE = 4;
+
+    /**
+     * Tiempo de inactividad (ms) tras el cual se cierra una conexión del pool.
+     * Puede cambiarse con la propiedad del sistema {@code vacation.db.pool.idleTimeoutMs}.
+     */
+    private static final long DEFAULT_IDLE_TIMEOUT_MS = 5 * 60 * 1000L;
+
+    /**
+     * Tiempo máximo (ms) que se espera por una conexión libre.
+     */
+    private static final long ACQUIRE_TIMEOUT_MS = 30 * 1000L;
+
+    /**
+     * Valores por defecto de la política de reintentos ante bloqueos. Pueden
+     * cambiarse con las propiedades del sistema {@code vacation.db.retry.attempts},
+     * {@code vacation.db.retry.initialDelayMs} y {@code vacation.db.retry.maxDelayMs}.
+     */
+    private static final int DEFAULT_RETRY_ATTEMPTS = 5;
+    private static final long DEFAULT_RETRY_INITIAL_DELAY_MS = 25;
+    private static final long DEFAULT_RETRY_MAX_DELAY_MS = 1000;
+
+    // Clave de settings con el costo de BCrypt calibrado
+    private static final String BCRYPT_COST_SETTING = "bcrypt.cost";
+
+    /**
+     * Columnas de la tabla de empleados.
+     * <p>
+     * hire_date y birth_date se guardan como INTEGER con el número de días
+     * desde 1970-01-01 (LocalDate.toEpochDay), más compacto y rápido de leer
+     * y comparar que el texto ISO.
+     * </p>
+     */
+    private static final String EMPLOYEES_COLUMNS =
+        "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+        "first_name TEXT NOT NULL," +
+        "last_name TEXT NOT NULL," +
+        "mothers_last_name TEXT," +
+        "hire_date INTEGER NOT NULL," +
+        "birth_date INTEGER NOT NULL," +
+        "nss TEXT UNIQUE NOT NULL," +
+        "curp TEXT UNIQUE NOT NULL," +
+        "department TEXT NOT NULL," +
+        "monthly_salary REAL";
+
+    // Columnas de employees indexadas por employees_fts
+    private static final String SEARCH_COLUMNS =
+        "first_name, last_name, mothers_last_name, nss, curp, department";
+
+    // Recorte automático de employee_changes
+    private static final int CHANGE_LOG_PRUNE_EVERY = 1000;
+    private static final int CHANGE_LOG_RETAINED = 10000;
+
+    private static ConnectionPool pool;
+
+    // Conexiones de solo lectura para sesiones sin permisos de escritura
+    private static ConnectionPool readPool;
+
+    private static DatabaseProfile profile;
+
+    private static String url;
+
+    private static RetryPolicy retryPolicy;
+
+    // Mantiene viva la base de datos en memoria mientras viva el proceso
+    private static Connection memoryKeeper;
 
     /**
      * Establece conexión con la base de datos
-     * * @return Conexión activa a la base de datos
+     * <p>
+     * La conexión proviene del pool compartido; al cerrarla regresa al pool
+     * para ser reutilizada por la siguiente consulta.
+     * </p>
+     * @return Conexión activa a la base de datos
      * @throws SQLException si ocurre un error al establecer la conexión
      */
     public static Connection connect() throws SQLException {
-        return DriverManager.getConnection(URL);
+        return getPool().getConnection();
+    }
+
+    /**
+     * Abre una conexión propia, fuera del pool, con el perfil activo.
+     * <p>
+     * Para quien necesita mantener una conexión abierta mucho tiempo (por
+     * ejemplo, para consultar PRAGMA data_version) sin ocupar para siempre
+     * un lugar del pool. El llamador debe cerrarla.
+     * </p>
+     * @return Conexión nueva que no pertenece al pool
+     * @throws SQLException si ocurre un error al establecer la conexión
+     */
+    public static Connection connectDedicated() throws SQLException {
+        // El pool crea la base en memoria y aplica las migraciones
+        getPool();
+        String activeUrl;
+        DatabaseProfile activeProfile;
+        synchronized (Database.class) {
+            activeUrl = getUrl();
+            activeProfile = getProfile();
+        }
+        return openConnection(activeUrl, activeProfile);
+    }
+
+    /**
+     * Obtiene una conexión de solo lectura.
+     * <p>
+     * Proviene de un pool aparte y más pequeño, abierto con
+     * SQLITE_OPEN_READONLY y PRAGMA query_only, para las vistas que solo
+     * consultan datos: sus lecturas no compiten por conexiones con las
+     * escrituras de los administradores y cualquier intento de escribir falla.
+     * </p>
+     * @return Conexión de solo lectura
+     * @throws SQLException si ocurre un error al establecer la conexión
+     */
+    public static Connection connectReadOnly() throws SQLException {
+        return getReadPool().getConnection();
+    }
+
+    /**
+     * Reemplaza el pool de conexiones por uno con la configuración indicada.
+     * Las conexiones inactivas del pool anterior se cierran.
+     * @param maxSize Número máximo de conexiones simultáneas
+     * @param idleTimeoutMillis Tiempo de inactividad antes de cerrar una conexión
+     * @throws IllegalArgumentException si algún parámetro es inválido
+     */
+    public static synchronized void configurePool(int maxSize, long idleTimeoutMillis) {
+        ConnectionPool newPool = createPool(maxSize, idleTimeoutMillis);
+        if (pool != null) {
+            pool.close();
+        }
+        pool = newPool;
+    }
+
+    /**
+     * Cambia el perfil de rendimiento de SQLite. Las conexiones abiertas con
+     * el perfil anterior se descartan para que todas usen el nuevo.
+     * @param newProfile Perfil a aplicar
+     * @throws IllegalArgumentException si el perfil es nulo
+     */
+    public static synchronized void setProfile(DatabaseProfile newProfile) {
+        if (newProfile == null) {
+            throw new IllegalArgumentException("El perfil de base de datos no puede ser nulo");
+        }
+        profile = newProfile;
+        closeReadPool();
+        if (pool != null) {
+            ConnectionPool.Stats stats = pool.getStats();
+            configurePool(stats.getMaxSize(), Long.getLong("vacation.db.pool.idleTimeoutMs", DEFAULT_IDLE_TIMEOUT_MS));
+        }
+    }
+
+    /**
+     * Obtiene el perfil de rendimiento activo.
+     * <p>
+     * Si no se ha establecido uno, se toma de la propiedad del sistema
+     * {@code vacation.db.profile} ("durable", "fast" o "shared"); por
+     * defecto "durable".
+     * </p>
+     * @return Perfil activo
+     */
+    public static synchronized DatabaseProfile getProfile() {
+        if (profile == null) {
+            profile = DatabaseProfile.fromName(System.getProperty("vacation.db.profile", "durable"));
+        }
+        return profile;
+    }
+
+    /**
+     * Obtiene la URL JDBC de la base de datos.
+     * <p>
+     * Si no se ha establecido una, se toma del primero que exista de:
+     * - la propiedad del sistema {@code vacation.db.url}
+     * - la variable de entorno {@code VACATION_DB_URL}
+     * - la llave {@code vacation.db.url} del archivo de configuración
+     * y si ninguno existe se usa {@link #DEFAULT_URL}. El valor puede ser una
+     * URL JDBC, la ruta de un archivo o {@code memory}.
+     * </p>
+     * @return URL JDBC activa
+     * @throws RuntimeException si el archivo de configuración no se puede leer
+     */
+    public static synchronized String getUrl() {
+        if (url == null) {
+            url = toJdbcUrl(readConfiguredUrl());
+        }
+        return url;
+    }
+
+    /**
+     * Cambia la base de datos a la que se conecta la aplicación. Las
+     * conexiones abiertas con la URL anterior se cierran.
+     * @param newUrl URL JDBC, ruta de un archivo o {@code memory}
+     * @throws IllegalArgumentException si la URL es nula o vacía
+     */
+    public static synchronized void setUrl(String newUrl) {
+        String jdbcUrl = toJdbcUrl(newUrl);
+        shutdown();
+        closeMemoryKeeper();
+        url = jdbcUrl;
     }
 
+    /**
+     * @return true si la base de datos activa vive solo en memoria
+     */
+    public static boolean isInMemory() {
+        return isMemoryUrl(getUrl());
+    }
+
+    /**
+     * Obtiene la política de reintentos ante bloqueos (SQLITE_BUSY) que usa
+     * la capa de datos. Se complementa con el busy_timeout del perfil.
+     * @return Política activa
+     */
+    public static synchronized RetryPolicy getRetryPolicy() {
+        if (retryPolicy == null) {
+            retryPolicy = new RetryPolicy(
+                Integer.getInteger("vacation.db.retry.attempts", DEFAULT_RETRY_ATTEMPTS),
+                Long.getLong("vacation.db.retry.initialDelayMs", DEFAULT_RETRY_INITIAL_DELAY_MS),
+                Long.getLong("vacation.db.retry.maxDelayMs", DEFAULT_RETRY_MAX_DELAY_MS));
+        }
+        return retryPolicy;
+    }
+
+    /**
+     * Reemplaza la política de reintentos; sus estadísticas empiezan en cero.
+     * @param policy Nueva política
+     * @throws IllegalArgumentException si es nula
+     */
+    public static synchronized void setRetryPolicy(RetryPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("La política de reintentos no puede ser nula");
+        }
+        retryPolicy = policy;
+    }
+
+    /**
+     * Obtiene las estadísticas de contención: bloqueos, reintentos, fallos
+     * definitivos y tiempo de espera.
+     * @return Estadísticas de la política de reintentos
+     */
+    public static RetryPolicy.Stats getRetryStats() {
+        return getRetryPolicy().getStats();
+    }
+
+    /**
+     * Obtiene las estadísticas actuales del pool de conexiones.
+     * @return Estadísticas del pool
+     */
+    public static ConnectionPool.Stats getPoolStats() {
+        return getPool().getStats();
+    }
+
+    /**
+     * Obtiene las estadísticas actuales del pool de solo lectura.
+     * @return Estadísticas del pool
+     */
+    public static ConnectionPool.Stats getReadPoolStats() {
+        return getReadPool().getStats();
+    }
+
+    /**
+     * Crea un respaldo en línea de la base de datos sin detener la aplicación.
+     * <p>
+     * El directorio se toma de la propiedad del sistema
+     * {@code vacation.db.backup.dir} (por defecto "backups") y la retención de
+     * {@code vacation.db.backup.retain} (por defecto 7 respaldos).
+     * </p>
+     * @return Resultado con el archivo generado, su checksum y la duración
+     * @throws RuntimeException si el respaldo falla
+     */
+    public static DatabaseBackup.BackupResult backup() {
+        Path directory = Paths.get(System.getProperty("vacation.db.backup.dir", "backups"));
+        int retain = Integer.getInteger("vacation.db.backup.retain", DatabaseBackup.DEFAULT_RETAIN_COUNT);
+        return backup(new DatabaseBackup(directory, retain,
+            DatabaseBackup.DEFAULT_PAGES_PER_STEP, DatabaseBackup.DEFAULT_STEP_PAUSE_MILLIS));
+    }
+
+    /**
+     * Crea un respaldo en línea con la configuración indicada.
+     * @param backup Destino, retención y ritmo del respaldo
+     * @return Resultado con el archivo generado, su checksum y la duración
+     * @throws RuntimeException si el respaldo falla
+     */
+    public static DatabaseBackup.BackupResult backup(DatabaseBackup backup) {
+        try (Connection conn = connect()) {
+            DatabaseBackup.BackupResult result = backup.backup(conn);
+            System.out.println(result);
+            return result;
+        } catch (SQLException e) {
+            System.err.println("Error al respaldar la base de datos: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al crear el respaldo", e);
+        } catch (IOException e) {
+            System.err.println("Error al escribir el respaldo: " + e.getMessage());
+            throw new RuntimeException("Error al escribir el archivo de respaldo", e);
+        }
+    }
+
+    /**
+     * Cierra todas las conexiones del pool. Se usa al terminar la aplicación.
+     */
+    public static synchronized void shutdown() {
+        if (retryPolicy != null && retryPolicy.getStats().getBusyEvents() > 0) {
+            System.err.println("Bloqueos de base de datos durante la sesión: " + retryPolicy.getStats());
+        }
+        closeReadPool();
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
+
+    private static synchronized ConnectionPool getPool() {
+        if (pool == null) {
+            openMemoryKeeper();
+            pool = createPool(
+                Integer.getInteger("vacation.db.pool.size", DEFAULT_POOL_SIZE),
+                Long.getLong("vacation.db.pool.idleTimeoutMs", DEFAULT_IDLE_TIMEOUT_MS));
+        }
+        return pool;
+    }
+
+    private static synchronized ConnectionPool getReadPool() {
+        if (readPool == null) {
+            // Una conexión de solo lectura no puede crear el archivo ni el esquema
+            getPool();
+            String activeUrl = getUrl();
+            DatabaseProfile activeProfile = getProfile();
+            readPool = new ConnectionPool(() -> openReadOnlyConnection(activeUrl, activeProfile),
+                Integer.getInteger("vacation.db.readPool.size", DEFAULT_READ_POOL_SIZE),
+                Long.getLong("vacation.db.pool.idleTimeoutMs", DEFAULT_IDLE_TIMEOUT_MS),
+                ACQUIRE_TIMEOUT_MS);
+        }
+        return readPool;
+    }
+
+    private static void closeReadPool() {
+        if (readPool != null) {
+            readPool.close();
+            readPool = null;
+        }
+    }
+
+    private static ConnectionPool createPool(int maxSize, long idleTimeoutMillis) {
+        String activeUrl = getUrl();
+        DatabaseProfile activeProfile = getProfile();
+        return new ConnectionPool(() -> openConnection(activeUrl, activeProfile),
+                maxSize, idleTimeoutMillis, ACQUIRE_TIMEOUT_MS);
+    }
+
+    /**
+     * Una base de datos en memoria desaparece al cerrarse su última conexión,
+     * así que se abre una conexión fuera del pool que nunca se cierra (el
+     * pool cierra las inactivas) y se aplica el esquema en ella: no hay un
+     * archivo previo que migrar.
+     */
+    private static void openMemoryKeeper() {
+        if (memoryKeeper != null || !isMemoryUrl(getUrl())) {
+            return;
+        }
+        try {
+            memoryKeeper = openConnection(getUrl(), getProfile());
+            int applied = MIGRATIONS.migrate(memoryKeeper);
+            System.out.printf("Base de datos en memoria creada (esquema v%d, %d migraciones).%n",
+                MIGRATIONS.getLatestVersion(), applied);
+        } catch (SQLException e) {
+            closeMemoryKeeper();
+            System.err.println("Error al crear la base de datos en memoria: " + e.getMessage());
+            throw new RuntimeException("Error crítico al crear la base de datos en memoria", e);
+        }
+    }
+
+    private static void closeMemoryKeeper() {
+        if (memoryKeeper != null) {
+            try {
+                memoryKeeper.close();
+            } catch (SQLException e) {
+                System.err.println("Error al cerrar la base de datos en memoria: " + e.getMessage());
+            }
+            memoryKeeper = null;
+        }
+    }
+
+    private static String readConfiguredUrl() {
+        String value = System.getProperty(URL_PROPERTY);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(URL_ENV);
+        }
+        if (value == null || value.isBlank()) {
+            Path configFile = Paths.get(System.getProperty("vacation.config", DEFAULT_CONFIG_FILE));
+            if (Files.isRegularFile(configFile)) {
+                Properties config = new Properties();
+                try (Reader reader = Files.newBufferedReader(configFile, StandardCharsets.UTF_8)) {
+                    config.load(reader);
+                } catch (IOException e) {
+                    System.err.println("Error al leer configuración: " + e.getMessage());
+                    throw new RuntimeException("Error al leer el archivo de configuración " + configFile, e);
+                }
+                value = config.getProperty(URL_PROPERTY);
+            }
+        }
+        return value == null || value.isBlank() ? DEFAULT_URL : value;
+    }
+
+    // Acepta una URL JDBC, el valor abreviado "memory" o la ruta de un archivo
+    private static String toJdbcUrl(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("La URL de la base de datos no puede estar vacía");
+        }
+        String trimmed = value.trim();
+        if (trimmed.equalsIgnoreCase("memory")) {
+            return SHARED_MEMORY_URL;
+        }
+        return trimmed.startsWith("jdbc:") ? trimmed : "jdbc:sqlite:" + trimmed;
+    }
+
+    private static boolean isMemoryUrl(String jdbcUrl) {
+        return jdbcUrl.contains(":memory:") || jdbcUrl.contains("mode=memory") || jdbcUrl.contains("vfs=memdb");
+    }
+
+    private static Connection openReadOnlyConnection(String jdbcUrl, DatabaseProfile activeProfile)
+            throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        Connection conn = DriverManager.getConnection(jdbcUrl, config.toProperties());
+        try {
+            activeProfile.applyReadOnly(conn);
+            if (isMemoryUrl(jdbcUrl)) {
+                // Con caché compartida los lectores bloquean tablas; así no detienen a los escritores
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("PRAGMA read_uncommitted = ON");
+                }
+            }
+            return conn;
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+    }
+
+    // Abre una conexión física y le aplica los PRAGMA del perfil
+    private static Connection openConnection(String jdbcUrl, DatabaseProfile activeProfile) throws SQLException {
+        Connection conn = DriverManager.getConnection(jdbcUrl);
+        try {
+            activeProfile.apply(conn);
+            return conn;
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Migraciones del esquema en orden de versión. Las primeras versiones son
+     * idempotentes para que bases de datos creadas antes de existir el control
+     * de versiones (user_version = 0) se actualicen sin perder datos.
+     */
+    private static final SchemaMigrator MIGRATIONS = new SchemaMigrator()
+        .add(1, "tablas de usuarios y empleados", Database::createTables)
+        .add(2, "fechas de empleados como días", Database::migrateDatesToEpochDays)
+        .add(3, "índices secundarios de empleados", Database::createIndexes)
+        .add(4, "usuario administrador por defecto", Database::createDefaultAdmin)
+        .add(5, "contraseñas en texto plano a BCrypt", Database::hashPlaintextPasswords)
+        .add(6, "índice de búsqueda de texto de empleados", Database::createSearchIndex)
+        .add(7, "bitácora de cambios de empleados", Database::createChangeLog)
+        .add(8, "tabla de configuración", Database::createSettings)
+        .add(9, "sesiones guardadas", Database::createSessions);
+
     /**
      * Inicializa la base de datos y crea las tablas necesarias
      * y el usuario admin por defecto si no existen.
+     * <p>
+     * Solo se aplican las migraciones cuya versión es mayor a la guardada en
+     * PRAGMA user_version; si el esquema está al día no se ejecuta DDL.
+     * </p>
      * @throws RuntimeException si ocurre un error crítico durante la inicialización
      */
     public static void initialize() {
+        long start = System.nanoTime();
         try (Connection conn = connect()) {
-            // Crear tablas si no existen
-            createTables(conn);
-            
-            // Verificar y crear usuario admin si no existe
-            createDefaultAdmin(conn);
-            
-            System.out.println("Base de datos inicializada correctamente.");
+            // El costo se fija antes de migrar: las migraciones hashean el
+            // admin por defecto y las contraseñas en texto plano
+            Integer calibrated = choosePasswordCost(conn);
+            int applied = MIGRATIONS.migrate(conn);
+            if (calibrated != null) {
+                writeSetting(conn, BCRYPT_COST_SETTING, String.valueOf(calibrated));
+            }
+
+            System.out.printf("Base de datos inicializada correctamente (perfil %s, esquema v%d, %d migraciones, %.1f ms).%n",
+                getProfile().getName(), MIGRATIONS.getLatestVersion(), applied,
+                (System.nanoTime() - start) / 1_000_000.0);
         } catch (SQLException e) {
             System.err.println("Error al inicializar la base de datos: " + e.getMessage());
             throw new RuntimeException("Error crítico al inicializar la base de datos", e);
         }
     }
 
+    /**
+     * Ajusta el costo de BCrypt de la aplicación ({@link PasswordHasher}).
+     * <p>
+     * Se usa, en orden:
+     * - La propiedad del sistema {@code vacation.bcrypt.cost}
+     * - El costo guardado en settings por una calibración anterior
+     * - Una calibración nueva hacia {@code vacation.bcrypt.targetMs}
+     *   (150 ms por defecto), que se guarda en settings
+     * </p>
+     * Con {@code -Dvacation.bcrypt.recalibrate=true} se vuelve a calibrar
+     * aunque exista un costo guardado (por ejemplo, tras cambiar de equipo).
+     * @throws RuntimeException si ocurre un error de base de datos
+     */
+    public static void configurePasswordCost() {
+        try (Connection conn = connect()) {
+            Integer calibrated = choosePasswordCost(conn);
+            if (calibrated != null) {
+                writeSetting(conn, BCRYPT_COST_SETTING, String.valueOf(calibrated));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al configurar el costo de contraseñas: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al configurar el costo de contraseñas", e);
+        }
+    }
+
+    // Aplica el costo y devuelve el recién calibrado para guardarlo en settings,
+    // o null si no hay nada que guardar. La tabla puede no existir todavía
+    private static Integer choosePasswordCost(Connection conn) throws SQLException {
+        Integer configured = Integer.getInteger("vacation.bcrypt.cost");
+        if (configured != null) {
+            PasswordHasher.setCost(configured);
+            return null;
+        }
+        String stored = hasSettingsTable(conn) ? readSetting(conn, BCRYPT_COST_SETTING) : null;
+        if (stored != null && !Boolean.getBoolean("vacation.bcrypt.recalibrate")) {
+            try {
+                PasswordHasher.setCost(Integer.parseInt(stored));
+                return null;
+            } catch (IllegalArgumentException e) {
+                System.err.println("Costo de BCrypt guardado inválido (" + stored + "), se recalibra");
+            }
+        }
+        int cost = PasswordHasher.calibrate(
+            Long.getLong("vacation.bcrypt.targetMs", PasswordHasher.DEFAULT_TARGET_MILLIS));
+        PasswordHasher.setCost(cost);
+        return cost;
+    }
+
+    private static boolean hasSettingsTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT name FROM sqlite_master WHERE type='table' AND name='settings'")) {
+            return rs.next();
+        }
+    }
+
+    /**
+     * Obtiene un valor de la tabla de configuración.
+     * @param key Clave del valor
+     * @return Valor guardado o null si no existe
+     * @throws RuntimeException si ocurre un error de base de datos
+     */
+    public static String getSetting(String key) {
+        try (Connection conn = connect()) {
+            return readSetting(conn, key);
+        } catch (SQLException e) {
+            System.err.println("Error al leer configuración: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al leer la configuración", e);
+        }
+    }
+
+    /**
+     * Guarda un valor en la tabla de configuración, reemplazando el anterior.
+     * @param key Clave del valor
+     * @param value Valor a guardar
+     * @throws IllegalArgumentException si la clave o el valor son nulos
+     * @throws RuntimeException si ocurre un error de base de datos
+     */
+    public static void putSetting(String key, String value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("La clave y el valor de configuración no pueden ser nulos");
+        }
+        try (Connection conn = connect()) {
+            writeSetting(conn, key, value);
+        } catch (SQLException e) {
+            System.err.println("Error al guardar configuración: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al guardar la configuración", e);
+        }
+    }
+
+    private static String readSetting(Connection conn, String key) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT value FROM settings WHERE key = ?")) {
+            pstmt.setString(1, key);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private static void writeSetting(Connection conn, String key, String value) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO settings (key, value) VALUES (?, ?) ON CONFLICT(key) DO UPDATE SET value = excluded.value")) {
+            pstmt.setString(1, key);
+            pstmt.setString(2, value);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Obtiene la versión del esquema guardada en la base de datos.
+     * @return Valor de PRAGMA user_version
+     * @throws RuntimeException si ocurre un error de base de datos
+     */
+    public static int getSchemaVersion() {
+        try (Connection conn = connect()) {
+            return SchemaMigrator.getUserVersion(conn);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error de base de datos al leer la versión del esquema", e);
+        }
+    }
+
+    /**
+     * Obtiene la versión de esquema más reciente que conoce la aplicación.
+     * @return Última versión de migración registrada
+     */
+    public static int getLatestSchemaVersion() {
+        return MIGRATIONS.getLatestVersion();
+    }
+
     /**
      * Crea las tablas necesarias en la base de datos
      */
@@ -68,21 +696,197 @@ public class Database {
                 "password TEXT NOT NULL," +
                 "is_admin BOOLEAN NOT NULL DEFAULT FALSE)");
 
-            // Tabla de empleados
-            stmt.execute("CREATE TABLE IF NOT EXISTS employees (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                "first_name TEXT NOT NULL," +
-                "last_name TEXT NOT NULL," +
-                "mothers_last_name TEXT," +
-                "hire_date TEXT NOT NULL," +
-                "birth_date TEXT NOT NULL," +
-                "nss TEXT UNIQUE NOT NULL," +
-                "curp TEXT UNIQUE NOT NULL," +
-                "department TEXT NOT NULL," +
-                "monthly_salary REAL)");
+            // Tabla de empleados (fechas como días desde 1970-01-01)
+            stmt.execute("CREATE TABLE IF NOT EXISTS employees (" + EMPLOYEES_COLUMNS + ")");
         }
     }
 
+    /**
+     * Convierte hire_date y birth_date de texto ISO (aaaa-mm-dd) a INTEGER con
+     * días desde 1970-01-01.
+     * <p>
+     * SQLite no permite cambiar el tipo de una columna, así que la tabla se
+     * reconstruye (dentro de la transacción de la migración). Si la tabla ya
+     * usa INTEGER no se hace nada.
+     * </p>
+     */
+    private static void migrateDatesToEpochDays(Connection conn) throws SQLException {
+        if (!"TEXT".equalsIgnoreCase(getColumnType(conn, "employees", "hire_date"))) {
+            return;
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            long sequence = 0;
+            try (ResultSet rs = stmt.executeQuery("SELECT seq FROM sqlite_sequence WHERE name = 'employees'")) {
+                if (rs.next()) {
+                    sequence = rs.getLong(1);
+                }
+            }
+
+            stmt.execute("DROP TABLE IF EXISTS employees_new");
+            stmt.execute("CREATE TABLE employees_new (" + EMPLOYEES_COLUMNS + ")");
+            stmt.executeUpdate("INSERT INTO employees_new " +
+                "(id, first_name, last_name, mothers_last_name, hire_date, birth_date, " +
+                "nss, curp, department, monthly_salary) " +
+                "SELECT id, first_name, last_name, mothers_last_name, " +
+                "CAST(julianday(hire_date) - 2440587.5 AS INTEGER), " +
+                "CAST(julianday(birth_date) - 2440587.5 AS INTEGER), " +
+                "nss, curp, department, monthly_salary FROM employees");
+            stmt.execute("DROP TABLE employees");
+            stmt.execute("ALTER TABLE employees_new RENAME TO employees");
+
+            // Conservar el contador de AUTOINCREMENT para no reutilizar ids
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "UPDATE sqlite_sequence SET seq = MAX(seq, ?) WHERE name = 'employees'")) {
+                pstmt.setLong(1, sequence);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    // Tipo declarado de una columna según PRAGMA table_info
+    private static String getColumnType(Connection conn, String table, String column) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return rs.getString("type");
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Crea los índices secundarios de la tabla de empleados.
+     * <p>
+     * - Apellido y nombre: permite listar en orden sin ordenamiento temporal
+     * - Departamento y fecha de ingreso: filtros y reportes frecuentes
+     * NSS y CURP ya cuentan con índice implícito por su restricción UNIQUE.
+     * </p>
+     */
+    private static void createIndexes(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_employees_name " +
+                "ON employees (last_name, first_name)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_employees_department " +
+                "ON employees (department)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_employees_hire_date " +
+                "ON employees (hire_date)");
+        }
+    }
+
+    /**
+     * Crea la tabla FTS5 de búsqueda de empleados y los triggers que la
+     * mantienen sincronizada.
+     * <p>
+     * La tabla es de contenido externo (no duplica los datos de employees):
+     * - unicode61 con remove_diacritics permite buscar "nunez" y encontrar "Núñez"
+     * - Los índices de prefijo de 2 y 3 caracteres aceleran búsquedas como "ram*"
+     * - El trigger de actualización solo se dispara si cambia una columna indexada
+     * </p>
+     */
+    private static void createSearchIndex(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE VIRTUAL TABLE IF NOT EXISTS employees_fts USING fts5(" +
+                SEARCH_COLUMNS + ", content='employees', content_rowid='id', " +
+                "tokenize='unicode61 remove_diacritics 2', prefix='2 3')");
+
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS employees_fts_insert AFTER INSERT ON employees BEGIN " +
+                "INSERT INTO employees_fts (rowid, " + SEARCH_COLUMNS + ") " +
+                "VALUES (new.id, " + prefixed("new.") + "); END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS employees_fts_delete AFTER DELETE ON employees BEGIN " +
+                "INSERT INTO employees_fts (employees_fts, rowid, " + SEARCH_COLUMNS + ") " +
+                "VALUES ('delete', old.id, " + prefixed("old.") + "); END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS employees_fts_update " +
+                "AFTER UPDATE OF " + SEARCH_COLUMNS + " ON employees BEGIN " +
+                "INSERT INTO employees_fts (employees_fts, rowid, " + SEARCH_COLUMNS + ") " +
+                "VALUES ('delete', old.id, " + prefixed("old.") + "); " +
+                "INSERT INTO employees_fts (rowid, " + SEARCH_COLUMNS + ") " +
+                "VALUES (new.id, " + prefixed("new.") + "); END");
+
+            // Indexar los empleados que ya existían
+            stmt.execute("INSERT INTO employees_fts (employees_fts) VALUES ('rebuild')");
+        }
+    }
+
+    /**
+     * Crea la bitácora de cambios de empleados.
+     * <p>
+     * Cada alta, cambio o baja agrega una fila (seq, op, employee_id) desde un
+     * trigger, sin importar qué conexión o proceso escribió. Las vistas
+     * guardan el último seq que conocen y piden solo lo posterior.
+     * </p>
+     * La bitácora se recorta sola: cada {@value #CHANGE_LOG_PRUNE_EVERY}
+     * cambios se borran los anteriores a los últimos {@value #CHANGE_LOG_RETAINED}.
+     */
+    private static void createChangeLog(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS employee_changes (" +
+                "seq INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "op TEXT NOT NULL CHECK (op IN ('I', 'U', 'D'))," +
+                "employee_id INTEGER NOT NULL)");
+
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS employee_changes_insert AFTER INSERT ON employees BEGIN " +
+                "INSERT INTO employee_changes (op, employee_id) VALUES ('I', new.id); END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS employee_changes_update AFTER UPDATE ON employees BEGIN " +
+                "INSERT INTO employee_changes (op, employee_id) VALUES ('U', new.id); END");
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS employee_changes_delete AFTER DELETE ON employees BEGIN " +
+                "INSERT INTO employee_changes (op, employee_id) VALUES ('D', old.id); END");
+
+            stmt.execute("CREATE TRIGGER IF NOT EXISTS employee_changes_prune AFTER INSERT ON employee_changes " +
+                "WHEN new.seq % " + CHANGE_LOG_PRUNE_EVERY + " = 0 BEGIN " +
+                "DELETE FROM employee_changes WHERE seq <= new.seq - " + CHANGE_LOG_RETAINED + "; END");
+        }
+    }
+
+    /**
+     * Crea la tabla de configuración (clave/valor) de la aplicación
+     */
+    private static void createSettings(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS settings (" +
+                "key TEXT PRIMARY KEY," +
+                "value TEXT NOT NULL)");
+        }
+    }
+
+    /**
+     * Crea la tabla de sesiones; solo guarda el hash SHA-256 de cada token
+     */
+    private static void createSessions(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS sessions (" +
+                "token_hash TEXT PRIMARY KEY," +
+                "user_id INTEGER NOT NULL REFERENCES users(id) ON DELETE CASCADE," +
+                "expires_at INTEGER NOT NULL)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_sessions_user ON sessions(user_id)");
+        }
+    }
+
+    private static String prefixed(String prefix) {
+        return prefix + SEARCH_COLUMNS.replace(", ", ", " + prefix);
+    }
+
+    /**
+     * Obtiene el plan de ejecución de una consulta con EXPLAIN QUERY PLAN.
+     * Los parámetros (?) no necesitan valores para obtener el plan.
+     * @param sql Consulta a analizar
+     * @return Líneas de detalle del plan, en orden
+     * @throws SQLException si la consulta no es válida
+     */
+    public static List<String> explainQueryPlan(String sql) throws SQLException {
+        List<String> details = new ArrayList<>();
+        try (Connection conn = connect();
+             PreparedStatement pstmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                details.add(rs.getString("detail"));
+            }
+        }
+        return details;
+    }
+
     /**
      * Crea el usuario administrador por defecto si no existe
      */
@@ -96,7 +900,7 @@ public class Database {
                 // Crear usuario admin con contraseña hasheada
                 String username = "admin";
                 String password = "Admin";
-                String hashedPassword = BCrypt.hashpw(password, BCrypt.gensalt());
+                String hashedPassword = PasswordHasher.hash(password);
                 
                 String insertSql = "INSERT INTO users (username, password, is_admin) VALUES (?, ?, ?)";
                 try (PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
@@ -113,40 +917,46 @@ public class Database {
 
     /**
      * Método para migrar todas las contraseñas a BCrypt (usar una sola vez)
+     * <p>
+     * La migración v5 ya lo hace al inicializar; este método permite repetirlo
+     * después de importar usuarios con contraseñas en texto plano. El avance
+     * se muestra en consola.
+     * </p>
      */
     public static void migratePasswordsToBCrypt() {
-        String selectSql = "SELECT id, password FROM users WHERE password NOT LIKE '$2%'";
-        String updateSql = "UPDATE users SET password = ? WHERE id = ?";
-        
-        try (Connection conn = connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(selectSql)) {
-            
-            conn.setAutoCommit(false); // Iniciar transacción
-            
-            while (rs.next()) {
-                String plainPassword = rs.getString("password");
-                int userId = rs.getInt("id");
-                
-                if (plainPassword != null && !plainPassword.isEmpty()) {
-                    String hashedPassword = BCrypt.hashpw(plainPassword, BCrypt.gensalt());
-                    
-                    try (PreparedStatement pstmt = conn.prepareStatement(updateSql)) {
-                        pstmt.setString(1, hashedPassword);
-                        pstmt.setInt(2, userId);
-                        pstmt.executeUpdate();
-                    }
-                }
-            }
-            
-            conn.commit(); // Confirmar transacción
-            System.out.println("Migración de contraseñas completada exitosamente.");
-            
+        try {
+            PasswordMigrator.MigrationResult result = migratePasswordsToBCrypt((migrated, total, rate) ->
+                System.out.printf("Contraseñas migradas: %d/%d (%.1f filas/s)%n", migrated, total, rate));
+            System.out.printf("Migración de contraseñas completada exitosamente (%d en %d ms).%n",
+                result.getRows(), result.getElapsedMillis());
+        } catch (RuntimeException e) {
+            System.err.println("Error en migración de contraseñas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Migra a BCrypt las contraseñas en texto plano, hasheando en paralelo y
+     * confirmando por lotes (ver {@link PasswordMigrator}).
+     * @param listener Receptor del avance, o null
+     * @return Resultado con las filas migradas y la velocidad
+     * @throws RuntimeException si ocurre un error de base de datos; los lotes
+     *                          ya confirmados se conservan
+     */
+    public static PasswordMigrator.MigrationResult migratePasswordsToBCrypt(PasswordMigrator.ProgressListener listener) {
+        try (Connection conn = connect()) {
+            return new PasswordMigrator().migrate(conn, listener);
         } catch (SQLException e) {
             System.err.println("Error en migración de contraseñas: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al migrar contraseñas", e);
         }
     }
 
+    // Hashea con BCrypt las contraseñas que siguen en texto plano, dentro de
+    // la transacción de la migración de esquema
+    private static void hashPlaintextPasswords(Connection conn) throws SQLException {
+        new PasswordMigrator().migrate(conn, null);
+    }
+
     /**
      * Verifica si la base de datos está correctamente configurada
      */
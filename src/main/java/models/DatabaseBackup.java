@@ -0,0 +1,302 @@
+package models;
+
+import org.sqlite.SQLiteConnection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respaldo en línea de la base de datos.
+ * <p>
+ * Usa la API de respaldo de SQLite, que copia la base de datos página por
+ * página mientras la aplicación sigue en uso:
+ * - Se copian {@code pagesPerStep} páginas por paso y se hace una pausa de
+ *   {@code stepPauseMillis} entre pasos para que las consultas de la
+ *   aplicación no esperen
+ * - La copia se comprime con GZIP y se guarda su SHA-256 en un archivo
+ *   {@code .sha256} junto al respaldo
+ * - Solo se conservan los {@code retainCount} respaldos más recientes
+ * </p>
+ * Si otra conexión escribe durante el respaldo, SQLite reinicia la copia
+ * para que el resultado sea consistente.
+ *
+ * @author Nelo Angelo
+ */
+public class DatabaseBackup {
+
+    /**
+     * Páginas copiadas por paso por defecto (4 MiB con páginas de 4 KiB).
+     */
+    public static final int DEFAULT_PAGES_PER_STEP = 1024;
+
+    /**
+     * Pausa por defecto entre pasos, en milisegundos.
+     */
+    public static final int DEFAULT_STEP_PAUSE_MILLIS = 10;
+
+    /**
+     * Respaldos que se conservan por defecto.
+     */
+    public static final int DEFAULT_RETAIN_COUNT = 7;
+
+    private static final String FILE_PREFIX = "vacation_system-";
+    private static final String FILE_SUFFIX = ".db.gz";
+    private static final String CHECKSUM_SUFFIX = ".sha256";
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    // Reintentos si la base de datos está bloqueada y pausa entre ellos
+    private static final int BUSY_RETRIES = 100;
+    private static final int BUSY_SLEEP_MILLIS = 50;
+
+    private final Path directory;
+    private final int retainCount;
+    private final int pagesPerStep;
+    private final int stepPauseMillis;
+
+    /**
+     * @param directory Directorio donde se guardan los respaldos (se crea si no existe)
+     * @param retainCount Respaldos que se conservan
+     * @param pagesPerStep Páginas copiadas por paso
+     * @param stepPauseMillis Pausa entre pasos en milisegundos (0 para no pausar)
+     * @throws IllegalArgumentException si algún valor es inválido
+     */
+    public DatabaseBackup(Path directory, int retainCount, int pagesPerStep, int stepPauseMillis) {
+        if (directory == null) {
+            throw new IllegalArgumentException("El directorio de respaldos no puede ser nulo");
+        }
+        if (retainCount <= 0 || pagesPerStep <= 0) {
+            throw new IllegalArgumentException("La retención y las páginas por paso deben ser mayores a cero");
+        }
+        if (stepPauseMillis < 0) {
+            throw new IllegalArgumentException("La pausa entre pasos no puede ser negativa");
+        }
+        this.directory = directory;
+        this.retainCount = retainCount;
+        this.pagesPerStep = pagesPerStep;
+        this.stepPauseMillis = stepPauseMillis;
+    }
+
+    /**
+     * Crea un respaldo comprimido de la base de datos de la conexión dada y
+     * elimina los respaldos que exceden la retención.
+     *
+     * @param conn Conexión a la base de datos a respaldar
+     * @return Resultado con el archivo generado, su checksum y la duración
+     * @throws SQLException si la API de respaldo falla
+     * @throws IOException si no se puede escribir el respaldo
+     */
+    public BackupResult backup(Connection conn) throws SQLException, IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+
+        String baseName = FILE_PREFIX + LocalDateTime.now().format(TIMESTAMP);
+        Path rawFile = directory.resolve(baseName + ".db.tmp");
+        Path target = directory.resolve(baseName + FILE_SUFFIX);
+        BackupResult result = new BackupResult(target);
+
+        try {
+            copyPages(conn, rawFile, result);
+            result.databaseBytes = Files.size(rawFile);
+            result.sha256 = compress(rawFile, target);
+            result.compressedBytes = Files.size(target);
+            Files.writeString(checksumFile(target),
+                result.sha256 + "  " + target.getFileName() + "\n", StandardCharsets.UTF_8);
+        } finally {
+            Files.deleteIfExists(rawFile);
+        }
+
+        result.deletedBackups = applyRetention();
+        result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return result;
+    }
+
+    /**
+     * Verifica que un respaldo coincida con su archivo {@code .sha256}.
+     *
+     * @param backupFile Archivo .db.gz generado por {@link #backup(Connection)}
+     * @return true si el checksum coincide
+     * @throws IOException si alguno de los archivos no se puede leer
+     */
+    public static boolean verify(Path backupFile) throws IOException {
+        String expected = Files.readString(checksumFile(backupFile), StandardCharsets.UTF_8).trim().split("\\s+")[0];
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(backupFile)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return expected.equalsIgnoreCase(HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * Descomprime un respaldo para restaurarlo.
+     *
+     * @param backupFile Archivo .db.gz
+     * @param target Archivo de base de datos destino (se reemplaza si existe)
+     * @throws IOException si el respaldo no se puede leer o el destino escribir
+     */
+    public static void restoreTo(Path backupFile, Path target) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(backupFile))) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Lista los respaldos del directorio, del más antiguo al más reciente.
+     *
+     * @return Archivos de respaldo
+     * @throws IOException si el directorio no se puede leer
+     */
+    public List<Path> listBackups() throws IOException {
+        List<Path> backups = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return backups;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                backups.add(file);
+            }
+        }
+        // El nombre lleva la fecha en formato ordenable
+        Collections.sort(backups);
+        return backups;
+    }
+
+    // ---- Métodos auxiliares ----
+
+    private void copyPages(Connection conn, Path rawFile, BackupResult result) throws SQLException {
+        SQLiteConnection sqlite = conn.unwrap(SQLiteConnection.class);
+        int rc = sqlite.getDatabase().backup("main", rawFile.toString(), (remaining, pageCount) -> {
+            result.pages = pageCount;
+            result.steps++;
+            if (remaining > 0 && stepPauseMillis > 0) {
+                try {
+                    // Entre pasos no se retiene ningún bloqueo sobre la base de datos
+                    Thread.sleep(stepPauseMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, BUSY_SLEEP_MILLIS, BUSY_RETRIES, pagesPerStep);
+
+        if (rc != 0) {
+            throw new SQLException("El respaldo de SQLite terminó con código " + rc, null, rc);
+        }
+    }
+
+    private static String compress(Path rawFile, Path target) throws IOException {
+        MessageDigest digest = sha256();
+        try (OutputStream out = new GZIPOutputStream(
+                new DigestOutputStream(Files.newOutputStream(target), digest), 64 * 1024)) {
+            Files.copy(rawFile, out);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private int applyRetention() throws IOException {
+        List<Path> backups = listBackups();
+        int deleted = 0;
+        for (int i = 0; i < backups.size() - retainCount; i++) {
+            Files.deleteIfExists(backups.get(i));
+            Files.deleteIfExists(checksumFile(backups.get(i)));
+            deleted++;
+        }
+        return deleted;
+    }
+
+    private static Path checksumFile(Path backupFile) {
+        return backupFile.resolveSibling(backupFile.getFileName() + CHECKSUM_SUFFIX);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+
+    /**
+     * Resultado de un respaldo.
+     */
+    public static class BackupResult {
+        private final Path file;
+        private int pages;
+        private int steps;
+        private long databaseBytes;
+        private long compressedBytes;
+        private String sha256;
+        private int deletedBackups;
+        private long elapsedMillis;
+
+        BackupResult(Path file) {
+            this.file = file;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public int getPages() {
+            return pages;
+        }
+
+        public int getSteps() {
+            return steps;
+        }
+
+        public long getDatabaseBytes() {
+            return databaseBytes;
+        }
+
+        public long getCompressedBytes() {
+            return compressedBytes;
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+
+        public int getDeletedBackups() {
+            return deletedBackups;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * @return MiB de base de datos respaldados por segundo
+         */
+        public double getThroughputMiBPerSecond() {
+            return elapsedMillis == 0 ? 0 : (databaseBytes / (1024.0 * 1024.0)) / (elapsedMillis / 1000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Respaldo %s: %,d bytes -> %,d bytes comprimidos en %,d ms (%.1f MiB/s)",
+                file.getFileName(), databaseBytes, compressedBytes, elapsedMillis, getThroughputMiBPerSecond());
+        }
+    }
+}
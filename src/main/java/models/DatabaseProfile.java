@@ -0,0 +1,200 @@
+package models;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Perfil de rendimiento de SQLite aplicado a cada conexión nueva.
+ * <p>
+ * Agrupa los PRAGMA que controlan el equilibrio entre velocidad y durabilidad:
+ * - journal_mode: WAL permite leer mientras otra conexión escribe
+ * - synchronous: nivel de sincronización con disco en cada commit
+ * - cache_size: tamaño de la caché de páginas (negativo = KiB)
+ * - mmap_size: bytes del archivo mapeados en memoria
+ * - temp_store: dónde se guardan tablas e índices temporales
+ * - busy_timeout: milisegundos de espera ante un bloqueo antes de fallar
+ * - foreign_keys: siempre activo, para que las sesiones se borren en
+ *   cascada con su usuario
+ * </p>
+ * Se ofrecen tres perfiles predefinidos: {@link #DURABLE} (por defecto),
+ * {@link #FAST} y {@link #SHARED}. El perfil se elige al iniciar con la
+ * propiedad del sistema {@code vacation.db.profile} o con
+ * {@link Database#setProfile(DatabaseProfile)}.
+ * <p>
+ * WAL necesita memoria compartida entre procesos, que las carpetas de red
+ * (SMB, NFS) no garantizan; si la base vive en una carpeta compartida debe
+ * usarse {@link #SHARED}.
+ * </p>
+ *
+ * @author Nelo Angelo
+ */
+public class DatabaseProfile {
+
+    /**
+     * Perfil seguro: WAL con sincronización completa en cada commit.
+     */
+    public static final DatabaseProfile DURABLE =
+        new DatabaseProfile("durable", "WAL", "FULL", -8000, 0, "DEFAULT", 5000);
+
+    /**
+     * Perfil rápido: WAL con sincronización normal, caché grande y mmap.
+     * Ante un corte de energía pueden perderse los últimos commits, pero el
+     * archivo no se corrompe.
+     */
+    public static final DatabaseProfile FAST =
+        new DatabaseProfile("fast", "WAL", "NORMAL", -32000, 256L * 1024 * 1024, "MEMORY", 5000);
+
+    /**
+     * Perfil para carpetas compartidas en red: diario DELETE en lugar de WAL,
+     * sin mmap y con una espera mayor ante bloqueos. Las lecturas esperan a
+     * que termine cada escritura.
+     */
+    public static final DatabaseProfile SHARED =
+        new DatabaseProfile("shared", "DELETE", "FULL", -8000, 0, "DEFAULT", 10000);
+
+    private final String name;
+    private final String journalMode;
+    private final String synchronous;
+    private final int cacheSize;
+    private final long mmapSize;
+    private final String tempStore;
+    private final int busyTimeoutMillis;
+
+    /**
+     * Crea un perfil personalizado.
+     *
+     * @param name Nombre descriptivo del perfil
+     * @param journalMode Valor de PRAGMA journal_mode (WAL, DELETE, TRUNCATE...)
+     * @param synchronous Valor de PRAGMA synchronous (OFF, NORMAL, FULL, EXTRA)
+     * @param cacheSize Valor de PRAGMA cache_size (páginas, o KiB si es negativo)
+     * @param mmapSize Valor de PRAGMA mmap_size en bytes (0 lo desactiva)
+     * @param tempStore Valor de PRAGMA temp_store (DEFAULT, FILE, MEMORY)
+     * @param busyTimeoutMillis Valor de PRAGMA busy_timeout en milisegundos
+     * @throws IllegalArgumentException si algún valor es inválido
+     */
+    public DatabaseProfile(String name, String journalMode, String synchronous, int cacheSize,
+                           long mmapSize, String tempStore, int busyTimeoutMillis) {
+        this.name = requireKeyword(name, "nombre");
+        this.journalMode = requireKeyword(journalMode, "journal_mode");
+        this.synchronous = requireKeyword(synchronous, "synchronous");
+        this.tempStore = requireKeyword(tempStore, "temp_store");
+        if (mmapSize < 0) {
+            throw new IllegalArgumentException("mmap_size no puede ser negativo");
+        }
+        if (busyTimeoutMillis < 0) {
+            throw new IllegalArgumentException("busy_timeout no puede ser negativo");
+        }
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.busyTimeoutMillis = busyTimeoutMillis;
+    }
+
+    /**
+     * Busca un perfil predefinido por nombre.
+     *
+     * @param name "durable", "fast" o "shared" (sin distinguir mayúsculas)
+     * @return El perfil correspondiente
+     * @throws IllegalArgumentException si el nombre no corresponde a un perfil
+     */
+    public static DatabaseProfile fromName(String name) {
+        if (name != null) {
+            if (DURABLE.name.equalsIgnoreCase(name.trim())) {
+                return DURABLE;
+            }
+            if (FAST.name.equalsIgnoreCase(name.trim())) {
+                return FAST;
+            }
+            if (SHARED.name.equalsIgnoreCase(name.trim())) {
+                return SHARED;
+            }
+        }
+        throw new IllegalArgumentException("Perfil de base de datos desconocido: " + name);
+    }
+
+    /**
+     * Aplica los PRAGMA del perfil a una conexión recién abierta.
+     *
+     * @param conn Conexión sin transacción activa
+     * @throws SQLException si algún PRAGMA falla
+     */
+    public void apply(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+            stmt.execute("PRAGMA journal_mode = " + journalMode);
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            stmt.execute("PRAGMA cache_size = " + cacheSize);
+            stmt.execute("PRAGMA mmap_size = " + mmapSize);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+            // SQLite no aplica REFERENCES ni ON DELETE CASCADE si no se activa en cada conexión
+            stmt.execute("PRAGMA foreign_keys = ON");
+        }
+    }
+
+    /**
+     * Aplica a una conexión de solo lectura los PRAGMA del perfil que afectan
+     * a las lecturas. journal_mode y synchronous se omiten porque escriben en
+     * la base de datos; los fija el pool de lectura y escritura.
+     *
+     * @param conn Conexión abierta en modo de solo lectura
+     * @throws SQLException si algún PRAGMA falla
+     */
+    public void applyReadOnly(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+            stmt.execute("PRAGMA cache_size = " + cacheSize);
+            stmt.execute("PRAGMA mmap_size = " + mmapSize);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+            stmt.execute("PRAGMA query_only = ON");
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getJournalMode() {
+        return journalMode;
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public long getMmapSize() {
+        return mmapSize;
+    }
+
+    public String getTempStore() {
+        return tempStore;
+    }
+
+    public int getBusyTimeoutMillis() {
+        return busyTimeoutMillis;
+    }
+
+    // Los valores se concatenan en los PRAGMA, así que solo se aceptan palabras simples
+    private static String requireKeyword(String value, String field) {
+        if (value == null || !value.trim().matches("[A-Za-z_]+")) {
+            throw new IllegalArgumentException("Valor inválido para " + field + ": " + value);
+        }
+        return value.trim();
+    }
+
+    @Override
+    public String toString() {
+        return "DatabaseProfile{" +
+               "name='" + name + '\'' +
+               ", journalMode=" + journalMode +
+               ", synchronous=" + synchronous +
+               ", cacheSize=" + cacheSize +
+               ", mmapSize=" + mmapSize +
+               ", tempStore=" + tempStore +
+               ", busyTimeout=" + busyTimeoutMillis +
+               '}';
+    }
+}
@@ -187,7 +187,15 @@ public class Employee {
      */
     
     public String getFullName() {
-        return firstName + " " + lastName + 
+        return formatFullName(firstName, lastName, mothersLastName);
+    }
+
+    /**
+     * Arma el nombre completo con el mismo formato que {@link #getFullName()}.
+     * Lo usan las consultas que no construyen un Employee completo.
+     */
+    public static String formatFullName(String firstName, String lastName, String mothersLastName) {
+        return firstName + " " + lastName +
                (mothersLastName != null ? " " + mothersLastName : "");
     }
 
@@ -0,0 +1,63 @@
+package models;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cambios de empleados posteriores a un número de secuencia de la bitácora.
+ * <p>
+ * Permite a una vista actualizar solo las filas afectadas:
+ * - {@link #getUpserted()}: empleados agregados o modificados, con sus datos actuales
+ * - {@link #getDeletedIds()}: IDs de empleados que ya no existen
+ * - {@link #getLatestSequence()}: valor a pedir en la siguiente actualización
+ * </p>
+ * Si la bitácora ya no contiene todos los cambios desde la secuencia pedida,
+ * {@link #isFullReloadRequired()} es verdadero y la vista debe recargar todo.
+ *
+ * @author Nelo Angelo
+ */
+public class EmployeeChangeSet {
+
+    private final long latestSequence;
+    private final boolean fullReloadRequired;
+    private final List<EmployeeSummary> upserted;
+    private final List<Integer> deletedIds;
+
+    public EmployeeChangeSet(long latestSequence, boolean fullReloadRequired,
+                             List<EmployeeSummary> upserted, List<Integer> deletedIds) {
+        this.latestSequence = latestSequence;
+        this.fullReloadRequired = fullReloadRequired;
+        this.upserted = Collections.unmodifiableList(upserted);
+        this.deletedIds = Collections.unmodifiableList(deletedIds);
+    }
+
+    public long getLatestSequence() {
+        return latestSequence;
+    }
+
+    public boolean isFullReloadRequired() {
+        return fullReloadRequired;
+    }
+
+    public List<EmployeeSummary> getUpserted() {
+        return upserted;
+    }
+
+    public List<Integer> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public boolean isEmpty() {
+        return upserted.isEmpty() && deletedIds.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeChangeSet{" +
+               "latestSequence=" + latestSequence +
+               ", fullReloadRequired=" + fullReloadRequired +
+               ", upserted=" + upserted.size() +
+               ", deleted=" + deletedIds.size() +
+               '}';
+    }
+}
@@ -0,0 +1,50 @@
+package models;
+
+import java.time.LocalDate;
+
+/**
+ * Fila ligera de empleado para la vista de usuarios regulares.
+ * <p>
+ * Contiene solo lo que muestra EmployeeView: nombre, departamento, fecha de
+ * ingreso y salario. No incluye identificadores personales (NSS, CURP).
+ * </p>
+ * @author Nelo Angelo
+ */
+public class EmployeeDirectoryEntry {
+
+    private final String fullName;
+    private final String department;
+    private final LocalDate hireDate;
+    private final double monthlySalary;
+
+    public EmployeeDirectoryEntry(String fullName, String department, LocalDate hireDate, double monthlySalary) {
+        this.fullName = fullName;
+        this.department = department;
+        this.hireDate = hireDate;
+        this.monthlySalary = monthlySalary;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public LocalDate getHireDate() {
+        return hireDate;
+    }
+
+    public double getMonthlySalary() {
+        return monthlySalary;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeDirectoryEntry{" +
+               "fullName='" + fullName + '\'' +
+               ", department='" + department + '\'' +
+               '}';
+    }
+}
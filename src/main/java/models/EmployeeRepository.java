@@ -0,0 +1,119 @@
+package models;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Almacenamiento de empleados.
+ * <p>
+ * Separa a los controladores del mecanismo de persistencia:
+ * - {@link SqliteEmployeeRepository}: tablas de SQLite (por defecto)
+ * - {@link InMemoryEmployeeRepository}: mapas concurrentes, sin E/S, para
+ *   demostraciones, pruebas de carga y pruebas rápidas
+ * </p>
+ * La implementación activa se obtiene con {@link Repositories#employees()}.
+ * Las validaciones de datos de entrada las hace el controlador; aquí solo se
+ * garantiza la unicidad de NSS y CURP.
+ *
+ * @author Nelo Angelo
+ */
+public interface EmployeeRepository {
+
+    /**
+     * Guarda un empleado nuevo.
+     * @param employee Empleado a guardar
+     * @return ID generado
+     * @throws IllegalArgumentException si el NSS o la CURP ya están registrados
+     * @throws RuntimeException si falla el almacenamiento
+     */
+    int insert(Employee employee);
+
+    /**
+     * Reemplaza los datos de un empleado existente.
+     * @param employee Empleado con id y datos nuevos
+     * @return true si el empleado existía
+     * @throws IllegalArgumentException si el NSS o la CURP pertenecen a otro empleado
+     */
+    boolean update(Employee employee);
+
+    /**
+     * @param id ID del empleado
+     * @return true si el empleado existía
+     */
+    boolean delete(int id);
+
+    /**
+     * @param id ID del empleado
+     * @return El empleado, o null si no existe
+     */
+    Employee findById(int id);
+
+    /**
+     * @return Todos los empleados ordenados por apellido y nombre
+     */
+    List<Employee> findAll();
+
+    /**
+     * @return Filas de la tabla de administración ordenadas por apellido y nombre
+     */
+    List<EmployeeSummary> findSummaries();
+
+    /**
+     * @return Filas del directorio de empleados ordenadas por apellido y nombre
+     */
+    List<EmployeeDirectoryEntry> findDirectoryEntries();
+
+    /**
+     * Obtiene los empleados que siguen a la llave (apellido, nombre, id) en
+     * ese orden.
+     * @param afterLastName Apellido de referencia, o null para la primera página
+     * @param afterFirstName Nombre de referencia
+     * @param afterId ID de referencia
+     * @param limit Número máximo de empleados
+     * @return Empleados de la página
+     */
+    List<Employee> findPage(String afterLastName, String afterFirstName, int afterId, int limit);
+
+    /**
+     * @return Número de empleados
+     */
+    int count();
+
+    /**
+     * Recorre los empleados ordenados por apellido y nombre. El Stream debe
+     * cerrarse para liberar los recursos que retenga.
+     * @param fetchSize Empleados que se leen por bloque
+     * @return Stream perezoso de empleados
+     */
+    Stream<Employee> stream(int fetchSize);
+
+    boolean existsByNss(String nss);
+
+    boolean existsByCurp(String curp);
+
+    /**
+     * Busca por prefijos de palabras en nombre, apellidos, NSS, CURP y
+     * departamento, sin distinguir mayúsculas ni acentos.
+     * @param text Texto de búsqueda (puede no contener palabras)
+     * @param limit Número máximo de resultados
+     * @return IDs encontrados, del más al menos relevante
+     */
+    List<Integer> searchIds(String text, int limit);
+
+    /**
+     * Igual que {@link #searchIds(String, int)} pero devuelve las filas de la
+     * tabla de administración.
+     */
+    List<EmployeeSummary> search(String text, int limit);
+
+    /**
+     * @return Secuencia más reciente de la bitácora de cambios
+     */
+    long getLatestChangeSequence();
+
+    /**
+     * @param sinceSequence Última secuencia conocida por quien llama
+     * @return Cambios posteriores, o una indicación de recarga completa
+     */
+    EmployeeChangeSet getChangesSince(long sinceSequence);
+}
@@ -0,0 +1,86 @@
+package models;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * Fila ligera de empleado para la tabla de administración.
+ * <p>
+ * Contiene solo las columnas que muestra AdminView, sin CURP ni fecha de
+ * nacimiento, para que listar empleados lea y construya lo mínimo. Conserva
+ * el nombre y el apellido paterno para ordenar filas sin volver a consultar.
+ * </p>
+ * @author Nelo Angelo
+ */
+public class EmployeeSummary {
+
+    /**
+     * Mismo orden que las consultas de empleados: apellido, nombre e id.
+     */
+    public static final Comparator<EmployeeSummary> NAME_ORDER = Comparator
+            .comparing(EmployeeSummary::getLastName)
+            .thenComparing(EmployeeSummary::getFirstName)
+            .thenComparingInt(EmployeeSummary::getId);
+
+    private final int id;
+    private final String firstName;
+    private final String lastName;
+    private final String fullName;
+    private final LocalDate hireDate;
+    private final String nss;
+    private final String department;
+    private final double monthlySalary;
+
+    public EmployeeSummary(int id, String firstName, String lastName, String mothersLastName,
+                           LocalDate hireDate, String nss, String department, double monthlySalary) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.fullName = Employee.formatFullName(firstName, lastName, mothersLastName);
+        this.hireDate = hireDate;
+        this.nss = nss;
+        this.department = department;
+        this.monthlySalary = monthlySalary;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public LocalDate getHireDate() {
+        return hireDate;
+    }
+
+    public String getNss() {
+        return nss;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public double getMonthlySalary() {
+        return monthlySalary;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeSummary{" +
+               "id=" + id +
+               ", fullName='" + fullName + '\'' +
+               ", department='" + department + '\'' +
+               '}';
+    }
+}
@@ -0,0 +1,304 @@
+package models;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Almacenamiento de empleados en memoria, sin ninguna E/S.
+ * <p>
+ * Pensado para demostraciones, pruebas de carga y pruebas rápidas:
+ * - Índices por ID, NSS y CURP en mapas concurrentes
+ * - Un conjunto ordenado por (apellido, nombre, id) para listados y páginas
+ * - Un candado de lectura/escritura: las escrituras son exclusivas y las
+ *   lecturas concurrentes entre sí, así que nunca ven un cambio a medias
+ * </p>
+ * Los empleados se copian al guardar y al devolver, así que modificar un
+ * objeto devuelto no altera el almacenamiento. La bitácora de cambios no se
+ * conserva: si hubo cambios desde la secuencia pedida se indica recarga
+ * completa. Los datos se pierden al cerrar la aplicación.
+ *
+ * @author Nelo Angelo
+ */
+public class InMemoryEmployeeRepository implements EmployeeRepository {
+
+    private static final Comparator<Employee> NAME_ORDER = Comparator
+            .comparing(Employee::getLastName)
+            .thenComparing(Employee::getFirstName)
+            .thenComparingInt(Employee::getId);
+
+    private final Map<Integer, Employee> byId = new ConcurrentHashMap<>();
+    private final Map<String, Integer> idByNss = new ConcurrentHashMap<>();
+    private final Map<String, Integer> idByCurp = new ConcurrentHashMap<>();
+    // Palabras normalizadas (sin acentos, en minúsculas) de cada empleado
+    private final Map<Integer, String[]> searchTokens = new ConcurrentHashMap<>();
+    private final NavigableSet<Employee> sorted = new ConcurrentSkipListSet<>(NAME_ORDER);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    // Cuenta las escrituras; hace las veces de secuencia de la bitácora
+    private final AtomicLong changeSequence = new AtomicLong();
+
+    @Override
+    public int insert(Employee employee) {
+        return locked(lock.writeLock(), () -> {
+            checkUnique(employee, 0);
+            Employee stored = copyOf(employee);
+            stored.setId(nextId.getAndIncrement());
+            put(stored);
+            changeSequence.incrementAndGet();
+            return stored.getId();
+        });
+    }
+
+    @Override
+    public boolean update(Employee employee) {
+        return locked(lock.writeLock(), () -> {
+            Employee current = byId.get(employee.getId());
+            if (current == null) {
+                return false;
+            }
+            checkUnique(employee, employee.getId());
+            remove(current);
+            put(copyOf(employee));
+            changeSequence.incrementAndGet();
+            return true;
+        });
+    }
+
+    @Override
+    public boolean delete(int id) {
+        return locked(lock.writeLock(), () -> {
+            Employee current = byId.get(id);
+            if (current == null) {
+                return false;
+            }
+            remove(current);
+            changeSequence.incrementAndGet();
+            return true;
+        });
+    }
+
+    @Override
+    public Employee findById(int id) {
+        return locked(lock.readLock(), () -> {
+            Employee emp = byId.get(id);
+            return emp != null ? copyOf(emp) : null;
+        });
+    }
+
+    @Override
+    public List<Employee> findAll() {
+        return locked(lock.readLock(), () -> {
+            List<Employee> employees = new ArrayList<>(byId.size());
+            for (Employee emp : sorted) {
+                employees.add(copyOf(emp));
+            }
+            return employees;
+        });
+    }
+
+    @Override
+    public List<EmployeeSummary> findSummaries() {
+        return locked(lock.readLock(), () -> {
+            List<EmployeeSummary> summaries = new ArrayList<>(byId.size());
+            for (Employee emp : sorted) {
+                summaries.add(toSummary(emp));
+            }
+            return summaries;
+        });
+    }
+
+    @Override
+    public List<EmployeeDirectoryEntry> findDirectoryEntries() {
+        return locked(lock.readLock(), () -> {
+            List<EmployeeDirectoryEntry> entries = new ArrayList<>(byId.size());
+            for (Employee emp : sorted) {
+                entries.add(new EmployeeDirectoryEntry(emp.getFullName(), emp.getDepartment(),
+                        emp.getHireDate(), emp.getMonthlySalary()));
+            }
+            return entries;
+        });
+    }
+
+    @Override
+    public List<Employee> findPage(String afterLastName, String afterFirstName, int afterId, int limit) {
+        return locked(lock.readLock(), () -> {
+            NavigableSet<Employee> tail = sorted;
+            if (afterLastName != null) {
+                Employee key = new Employee(afterId, afterFirstName, afterLastName, null, null, null,
+                        null, null, null, 0);
+                tail = sorted.tailSet(key, false);
+            }
+            List<Employee> employees = new ArrayList<>(Math.min(limit, 1000));
+            for (Employee emp : tail) {
+                if (employees.size() >= limit) {
+                    break;
+                }
+                employees.add(copyOf(emp));
+            }
+            return employees;
+        });
+    }
+
+    @Override
+    public int count() {
+        return locked(lock.readLock(), byId::size);
+    }
+
+    @Override
+    public Stream<Employee> stream(int fetchSize) {
+        // Se copia bajo el candado: un stream perezoso podría ver una escritura a medias
+        return findAll().stream();
+    }
+
+    @Override
+    public boolean existsByNss(String nss) {
+        return locked(lock.readLock(), () -> idByNss.containsKey(nss));
+    }
+
+    @Override
+    public boolean existsByCurp(String curp) {
+        return locked(lock.readLock(), () -> idByCurp.containsKey(curp));
+    }
+
+    @Override
+    public List<Integer> searchIds(String text, int limit) {
+        List<Integer> ids = new ArrayList<>();
+        for (Employee emp : locked(lock.readLock(), () -> matches(text, limit))) {
+            ids.add(emp.getId());
+        }
+        return ids;
+    }
+
+    @Override
+    public List<EmployeeSummary> search(String text, int limit) {
+        List<EmployeeSummary> summaries = new ArrayList<>();
+        for (Employee emp : locked(lock.readLock(), () -> matches(text, limit))) {
+            summaries.add(toSummary(emp));
+        }
+        return summaries;
+    }
+
+    @Override
+    public long getLatestChangeSequence() {
+        return changeSequence.get();
+    }
+
+    @Override
+    public EmployeeChangeSet getChangesSince(long sinceSequence) {
+        long latest = changeSequence.get();
+        return new EmployeeChangeSet(latest, sinceSequence != latest, new ArrayList<>(), new ArrayList<>());
+    }
+
+    // ---- Métodos auxiliares ----
+
+    private void checkUnique(Employee employee, int ownId) {
+        Integer nssOwner = idByNss.get(employee.getNss());
+        if (nssOwner != null && nssOwner != ownId) {
+            throw new IllegalArgumentException("El NSS ya está registrado");
+        }
+        Integer curpOwner = idByCurp.get(employee.getCurp());
+        if (curpOwner != null && curpOwner != ownId) {
+            throw new IllegalArgumentException("La CURP ya está registrada");
+        }
+    }
+
+    private void put(Employee emp) {
+        byId.put(emp.getId(), emp);
+        idByNss.put(emp.getNss(), emp.getId());
+        idByCurp.put(emp.getCurp(), emp.getId());
+        searchTokens.put(emp.getId(), tokenize(Stream.of(emp.getFirstName(), emp.getLastName(),
+                emp.getMothersLastName(), emp.getNss(), emp.getCurp(), emp.getDepartment())
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(" "))));
+        sorted.add(emp);
+    }
+
+    private void remove(Employee emp) {
+        sorted.remove(emp);
+        byId.remove(emp.getId());
+        idByNss.remove(emp.getNss());
+        idByCurp.remove(emp.getCurp());
+        searchTokens.remove(emp.getId());
+    }
+
+    private static <T> T locked(Lock held, Supplier<T> action) {
+        held.lock();
+        try {
+            return action.get();
+        } finally {
+            held.unlock();
+        }
+    }
+
+    // Igual que el índice FTS5: cada palabra buscada es prefijo de alguna palabra del empleado
+    private List<Employee> matches(String text, int limit) {
+        List<Employee> found = new ArrayList<>();
+        String[] words = text == null ? new String[0] : tokenize(text);
+        if (words.length == 0) {
+            return found;
+        }
+        for (Employee emp : sorted) {
+            if (found.size() >= limit) {
+                break;
+            }
+            String[] tokens = searchTokens.get(emp.getId());
+            if (tokens != null && containsAllPrefixes(tokens, words)) {
+                found.add(emp);
+            }
+        }
+        return found;
+    }
+
+    private static boolean containsAllPrefixes(String[] tokens, String[] words) {
+        for (String word : words) {
+            boolean matched = false;
+            for (String token : tokens) {
+                if (token.startsWith(word)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] tokenize(String text) {
+        String plain = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        return Stream.of(plain.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static EmployeeSummary toSummary(Employee emp) {
+        return new EmployeeSummary(emp.getId(), emp.getFirstName(), emp.getLastName(),
+                emp.getMothersLastName(), emp.getHireDate(), emp.getNss(), emp.getDepartment(),
+                emp.getMonthlySalary());
+    }
+
+    private static Employee copyOf(Employee emp) {
+        return new Employee(emp.getId(), emp.getFirstName(), emp.getLastName(), emp.getMothersLastName(),
+                emp.getHireDate(), emp.getBirthDate(), emp.getNss(), emp.getCurp(),
+                emp.getDepartment(), emp.getMonthlySalary());
+    }
+}
@@ -0,0 +1,152 @@
+package models;
+
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Almacenamiento de usuarios en memoria, sin ninguna E/S.
+ * <p>
+ * Se crea con el mismo administrador por defecto que la migración de la
+ * base de datos (admin / Admin) para poder iniciar sesión. Los datos se
+ * pierden al cerrar la aplicación.
+ * </p>
+ *
+ * @author Nelo Angelo
+ */
+public class InMemoryUserRepository implements UserRepository {
+
+    private final Map<Integer, User> byId = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    // Hash del token -> {ID de usuario, vencimiento}
+    private final Map<String, long[]> sessions = new ConcurrentHashMap<>();
+
+    public InMemoryUserRepository() {
+        // Directo en el mapa: llamar a insert() desde el constructor permitiría que una subclase lo sobrescriba
+        int id = nextId.getAndIncrement();
+        byId.put(id, new User(id, "admin", PasswordHasher.hash("Admin"), true));
+    }
+
+    @Override
+    public User findByUsername(String username) {
+        for (User user : byId.values()) {
+            if (user.getUsername().equals(username)) {
+                return copyOf(user, true);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public User findById(int id) {
+        User user = byId.get(id);
+        return user != null ? copyOf(user, false) : null;
+    }
+
+    @Override
+    public List<User> findAll() {
+        List<User> users = new ArrayList<>(byId.size());
+        for (User user : byId.values()) {
+            users.add(copyOf(user, false));
+        }
+        users.sort(Comparator.comparing(User::getUsername));
+        return users;
+    }
+
+    @Override
+    public synchronized boolean insert(String username, String passwordHash, boolean isAdmin) {
+        if (usernameExists(username, 0)) {
+            return false;
+        }
+        int id = nextId.getAndIncrement();
+        byId.put(id, new User(id, username, passwordHash, isAdmin));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean update(User user) {
+        User current = byId.get(user.getId());
+        if (current == null || usernameExists(user.getUsername(), user.getId())) {
+            return false;
+        }
+        byId.put(current.getId(), new User(current.getId(), user.getUsername(), current.getPassword(), user.isAdmin()));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean updatePassword(int id, String passwordHash) {
+        User current = byId.get(id);
+        if (current == null) {
+            return false;
+        }
+        byId.put(id, new User(id, current.getUsername(), passwordHash, current.isAdmin()));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean delete(int id) {
+        deleteSessions(id);
+        return byId.remove(id) != null;
+    }
+
+    @Override
+    public boolean usernameExists(String username, int excludeUserId) {
+        for (User user : byId.values()) {
+            if (user.getId() != excludeUserId && user.getUsername().equals(username)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int countAdmins() {
+        int admins = 0;
+        for (User user : byId.values()) {
+            if (user.isAdmin()) {
+                admins++;
+            }
+        }
+        return admins;
+    }
+
+    @Override
+    public boolean insertSession(String tokenHash, int userId, long expiresAt) {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> session[1] <= now);
+        sessions.put(tokenHash, new long[] {userId, expiresAt});
+        return true;
+    }
+
+    @Override
+    public User findSessionUser(String tokenHash, long now) {
+        long[] session = sessions.get(tokenHash);
+        return session != null && session[1] > now ? findById((int) session[0]) : null;
+    }
+
+    @Override
+    public long getSessionExpiry(String tokenHash) {
+        long[] session = sessions.get(tokenHash);
+        return session != null ? session[1] : 0;
+    }
+
+    @Override
+    public boolean deleteSession(String tokenHash) {
+        return sessions.remove(tokenHash) != null;
+    }
+
+    @Override
+    public int deleteSessions(int userId) {
+        int before = sessions.size();
+        sessions.values().removeIf(session -> session[0] == userId);
+        return before - sessions.size();
+    }
+
+    private static User copyOf(User user, boolean withPassword) {
+        return new User(user.getId(), user.getUsername(), withPassword ? user.getPassword() : "", user.isAdmin());
+    }
+}
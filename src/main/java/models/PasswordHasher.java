@@ -0,0 +1,153 @@
+package models;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+/**
+ * Hash de contraseñas con BCrypt y un costo ajustado al equipo.
+ * <p>
+ * El costo de BCrypt duplica el tiempo de cada hash por cada unidad, así que
+ * el valor por defecto de la biblioteca es lento en los equipos modestos y
+ * débil en los rápidos. Esta clase:
+ * - Calibra el costo midiendo hashes hasta acercarse a un tiempo objetivo
+ * - Genera los hashes nuevos con el costo activo
+ * - Indica qué hashes guardados usan otro costo para rehacerlos al iniciar sesión
+ * </p>
+ * El costo calibrado se guarda en la tabla settings (ver
+ * {@link Database#configurePasswordCost()}) para no medir en cada inicio.
+ *
+ * @author Nelo Angelo
+ */
+public final class PasswordHasher {
+
+    /**
+     * Costo de la biblioteca, usado mientras no se calibre ni se configure otro.
+     */
+    public static final int DEFAULT_COST = 10;
+
+    /**
+     * Costo mínimo que acepta la calibración, aun en equipos muy lentos.
+     */
+    public static final int MIN_COST = 8;
+
+    /**
+     * Costo máximo que elige la calibración.
+     */
+    public static final int MAX_COST = 16;
+
+    /**
+     * Tiempo objetivo por defecto de un hash, en milisegundos.
+     */
+    public static final long DEFAULT_TARGET_MILLIS = 150;
+
+    private static volatile int cost = DEFAULT_COST;
+
+    private PasswordHasher() {
+    }
+
+    /**
+     * @param password Contraseña en texto plano
+     * @return Hash BCrypt con el costo activo
+     */
+    public static String hash(String password) {
+        return BCrypt.hashpw(password, BCrypt.gensalt(cost));
+    }
+
+    /**
+     * @param password Contraseña en texto plano
+     * @param hash Hash BCrypt guardado
+     * @return true si la contraseña corresponde al hash
+     */
+    public static boolean verify(String password, String hash) {
+        return BCrypt.checkpw(password, hash);
+    }
+
+    /**
+     * @param hash Valor guardado en la columna de contraseña
+     * @return true si tiene formato BCrypt ($2a$, $2b$ o $2y$)
+     */
+    public static boolean isBcryptHash(String hash) {
+        return hash != null &&
+               (hash.startsWith("$2a$") ||
+                hash.startsWith("$2b$") ||
+                hash.startsWith("$2y$"));
+    }
+
+    /**
+     * Obtiene el costo con que se generó un hash.
+     * @param hash Hash BCrypt ($2a$10$...)
+     * @return Costo del hash, o -1 si no tiene formato BCrypt
+     */
+    public static int getCost(String hash) {
+        if (!isBcryptHash(hash) || hash.length() < 7 || hash.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param hash Hash BCrypt guardado
+     * @return true si el hash usa un costo distinto al activo
+     */
+    public static boolean needsRehash(String hash) {
+        return getCost(hash) != cost;
+    }
+
+    /**
+     * @return Costo activo para hashes nuevos
+     */
+    public static int getCost() {
+        return cost;
+    }
+
+    /**
+     * Cambia el costo de los hashes nuevos.
+     * @param newCost Costo entre 4 y 30 (límites de BCrypt)
+     * @throws IllegalArgumentException si está fuera de rango
+     */
+    public static void setCost(int newCost) {
+        if (newCost < 4 || newCost > 30) {
+            throw new IllegalArgumentException("El costo de BCrypt debe estar entre 4 y 30");
+        }
+        cost = newCost;
+    }
+
+    /**
+     * Mide el costo más alto cuyo hash tarda como máximo el tiempo objetivo.
+     * <p>
+     * Empieza en {@link #MIN_COST} y sube mientras el doble del último tiempo
+     * medido quepa en el objetivo, así que nunca mide un hash mucho más lento
+     * que el objetivo y la calibración completa tarda alrededor del doble.
+     * </p>
+     * @param targetMillis Tiempo objetivo por hash
+     * @return Costo calibrado, entre {@link #MIN_COST} y {@link #MAX_COST}
+     * @throws IllegalArgumentException si el objetivo no es positivo
+     */
+    public static int calibrate(long targetMillis) {
+        if (targetMillis <= 0) {
+            throw new IllegalArgumentException("El tiempo objetivo debe ser mayor a cero");
+        }
+        // Primer hash sin medir: carga de clases y compilación JIT
+        BCrypt.hashpw("calibracion", BCrypt.gensalt(MIN_COST));
+
+        int calibrated = MIN_COST;
+        long elapsed = measure(calibrated);
+        while (calibrated < MAX_COST && elapsed * 2 <= targetMillis) {
+            calibrated++;
+            elapsed = measure(calibrated);
+        }
+        System.out.printf("Costo de BCrypt calibrado: %d (%d ms por hash, objetivo %d ms).%n",
+            calibrated, elapsed, targetMillis);
+        return calibrated;
+    }
+
+    private static long measure(int testCost) {
+        String salt = BCrypt.gensalt(testCost);
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibracion", salt);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -0,0 +1,194 @@
+package models;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Migración de contraseñas en texto plano a BCrypt.
+ * <p>
+ * Hashear es lo costoso (decenas de milisegundos por contraseña), así que:
+ * - Las contraseñas pendientes se leen primero y se hashean en paralelo en
+ *   un pool con un hilo por núcleo
+ * - Se guardan por lotes de {@code chunkSize} con una sola sentencia UPDATE
+ *   preparada (addBatch/executeBatch)
+ * - En modo autocommit cada lote se confirma por separado; si la migración
+ *   se interrumpe, volver a ejecutarla continúa con las que faltan
+ * - El avance y las filas por segundo se reportan a un
+ *   {@link ProgressListener} al terminar cada lote
+ * </p>
+ * Si la conexión ya está dentro de una transacción (por ejemplo, en una
+ * migración de esquema) no se confirma nada y el llamador decide.
+ *
+ * @author Nelo Angelo
+ */
+public class PasswordMigrator {
+
+    /**
+     * Recibe el avance de la migración.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param migrated Contraseñas guardadas hasta el momento
+         * @param total Contraseñas pendientes al iniciar
+         * @param rowsPerSecond Velocidad promedio desde el inicio
+         */
+        void onProgress(int migrated, int total, double rowsPerSecond);
+    }
+
+    /**
+     * Contraseñas por lote por defecto.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private static final String SELECT_PENDING_SQL =
+        "SELECT id, password FROM users WHERE password NOT LIKE '$2%' AND password <> ''";
+    private static final String UPDATE_SQL = "UPDATE users SET password = ? WHERE id = ?";
+
+    private final int threads;
+    private final int chunkSize;
+
+    /**
+     * Crea un migrador con un hilo por núcleo y lotes de {@value #DEFAULT_CHUNK_SIZE}.
+     */
+    public PasswordMigrator() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param threads Hilos para hashear
+     * @param chunkSize Contraseñas por lote
+     * @throws IllegalArgumentException si algún valor no es positivo
+     */
+    public PasswordMigrator(int threads, int chunkSize) {
+        if (threads <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Los hilos y el tamaño de lote deben ser mayores a cero");
+        }
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Hashea y guarda todas las contraseñas que siguen en texto plano.
+     *
+     * @param conn Conexión a usar
+     * @param listener Receptor del avance, o null
+     * @return Resultado con las filas migradas y el tiempo empleado
+     * @throws SQLException si falla la lectura o el guardado, o si se
+     *                      interrumpe; en modo autocommit los lotes ya
+     *                      confirmados se conservan
+     */
+    public MigrationResult migrate(Connection conn, ProgressListener listener) throws SQLException {
+        long start = System.nanoTime();
+        MigrationResult result = new MigrationResult();
+
+        List<Integer> ids = new ArrayList<>();
+        List<String> passwords = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(SELECT_PENDING_SQL)) {
+            while (rs.next()) {
+                ids.add(rs.getInt("id"));
+                passwords.add(rs.getString("password"));
+            }
+        }
+        if (passwords.isEmpty()) {
+            return result;
+        }
+
+        int total = passwords.size();
+        boolean commitChunks = conn.getAutoCommit();
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, total), r -> {
+            Thread t = new Thread(r, "password-migration-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try (PreparedStatement update = conn.prepareStatement(UPDATE_SQL)) {
+            if (commitChunks) {
+                conn.setAutoCommit(false);
+            }
+            for (int from = 0; from < total; from += chunkSize) {
+                int to = Math.min(from + chunkSize, total);
+                List<String> hashes = hashAll(executor, passwords.subList(from, to));
+                for (int i = from; i < to; i++) {
+                    update.setString(1, hashes.get(i - from));
+                    update.setInt(2, ids.get(i));
+                    update.addBatch();
+                }
+                update.executeBatch();
+                if (commitChunks) {
+                    conn.commit();
+                }
+                result.rows = to;
+                result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+                if (listener != null) {
+                    listener.onProgress(to, total, result.getRowsPerSecond());
+                }
+            }
+        } catch (SQLException e) {
+            if (commitChunks) {
+                conn.rollback();
+            }
+            throw e;
+        } finally {
+            executor.shutdownNow();
+            if (commitChunks) {
+                conn.setAutoCommit(true);
+            }
+        }
+        return result;
+    }
+
+    private static List<String> hashAll(ExecutorService executor, List<String> plain) throws SQLException {
+        List<Callable<String>> tasks = new ArrayList<>(plain.size());
+        for (String password : plain) {
+            tasks.add(() -> PasswordHasher.hash(password));
+        }
+        try {
+            List<String> hashes = new ArrayList<>(plain.size());
+            for (Future<String> future : executor.invokeAll(tasks)) {
+                hashes.add(future.get());
+            }
+            return hashes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Migración de contraseñas interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new SQLException("Error al hashear contraseña: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Resultado de una migración de contraseñas.
+     */
+    public static class MigrationResult {
+        private int rows;
+        private long elapsedMillis;
+
+        public int getRows() {
+            return rows;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * @return Contraseñas migradas por segundo (0 si no hubo ninguna)
+         */
+        public double getRowsPerSecond() {
+            return rows == 0 ? 0 : rows * 1000.0 / Math.max(1, elapsedMillis);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package models;
+
+/**
+ * Punto único para obtener los repositorios de la aplicación.
+ * <p>
+ * El almacenamiento se elige al iniciar con la propiedad del sistema
+ * {@code vacation.storage}:
+ * - {@code sqlite} (por defecto): base de datos en disco
+ * - {@code memory}: mapas en memoria, sin E/S; los datos se pierden al salir
+ * </p>
+ * Los repositorios se crean una sola vez y se comparten entre todos los
+ * controladores, así que en modo memoria todas las vistas ven los mismos datos.
+ *
+ * @author Nelo Angelo
+ */
+public final class Repositories {
+
+    /**
+     * Mecanismos de almacenamiento disponibles.
+     */
+    public enum Backend {
+        SQLITE("sqlite"),
+        MEMORY("memory");
+
+        private final String name;
+
+        Backend(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @param name Nombre del almacenamiento (sin distinguir mayúsculas)
+         * @return El almacenamiento correspondiente
+         * @throws IllegalArgumentException si el nombre no es válido
+         */
+        public static Backend fromName(String name) {
+            if (name != null) {
+                for (Backend backend : values()) {
+                    if (backend.name.equalsIgnoreCase(name.trim())) {
+                        return backend;
+                    }
+                }
+            }
+            throw new IllegalArgumentException("Almacenamiento desconocido: " + name);
+        }
+    }
+
+    private static Backend backend;
+    private static EmployeeRepository employees;
+    private static EmployeeRepository readOnlyEmployees;
+    private static UserRepository users;
+
+    private Repositories() {
+    }
+
+    /**
+     * @return Almacenamiento activo
+     */
+    public static synchronized Backend getBackend() {
+        if (backend == null) {
+            backend = Backend.fromName(System.getProperty("vacation.storage", Backend.SQLITE.getName()));
+        }
+        return backend;
+    }
+
+    /**
+     * Cambia el almacenamiento activo y descarta los repositorios creados.
+     * Debe llamarse antes de crear controladores (al iniciar o en pruebas).
+     * @param newBackend Almacenamiento a usar
+     * @throws IllegalArgumentException si es nulo
+     */
+    public static synchronized void useBackend(Backend newBackend) {
+        if (newBackend == null) {
+            throw new IllegalArgumentException("El almacenamiento no puede ser nulo");
+        }
+        backend = newBackend;
+        employees = null;
+        readOnlyEmployees = null;
+        users = null;
+    }
+
+    /**
+     * @return Repositorio de empleados del almacenamiento activo
+     */
+    public static synchronized EmployeeRepository employees() {
+        if (employees == null) {
+            employees = getBackend() == Backend.MEMORY
+                ? new InMemoryEmployeeRepository()
+                : new SqliteEmployeeRepository();
+        }
+        return employees;
+    }
+
+    /**
+     * Repositorio de empleados para sesiones que solo consultan datos.
+     * <p>
+     * Con SQLite usa el pool de conexiones de solo lectura de
+     * {@link Database}; en memoria no hay conexiones y se comparte el
+     * repositorio de {@link #employees()}.
+     * </p>
+     * @return Repositorio de empleados de solo lectura
+     */
+    public static synchronized EmployeeRepository readOnlyEmployees() {
+        if (readOnlyEmployees == null) {
+            readOnlyEmployees = getBackend() == Backend.MEMORY
+                ? employees()
+                : new SqliteEmployeeRepository(true);
+        }
+        return readOnlyEmployees;
+    }
+
+    /**
+     * @return Repositorio de usuarios del almacenamiento activo
+     */
+    public static synchronized UserRepository users() {
+        if (users == null) {
+            users = getBackend() == Backend.MEMORY
+                ? new InMemoryUserRepository()
+                : new SqliteUserRepository();
+        }
+        return users;
+    }
+}
@@ -0,0 +1,190 @@
+package models;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reintentos ante bloqueos de la base de datos (SQLITE_BUSY / SQLITE_LOCKED).
+ * <p>
+ * PRAGMA busy_timeout ya hace esperar a cada sentencia mientras otra conexión
+ * tiene el bloqueo, pero hay casos que no cubre: otra instancia de la
+ * aplicación sobre el mismo archivo en una carpeta compartida, o una
+ * transacción de lectura que no puede convertirse en escritura. Para esos:
+ * - La operación se repite hasta {@code maxAttempts} veces
+ * - Entre intentos se espera un tiempo que crece al doble, con variación
+ *   aleatoria (jitter) para que dos procesos no vuelvan a chocar a la vez
+ * - Se cuentan los bloqueos, los reintentos, los fallos definitivos y el
+ *   tiempo perdido esperando
+ * </p>
+ * Solo deben reintentarse operaciones que puedan repetirse sin efectos
+ * dobles: una sentencia en modo autocommit o una transacción completa que
+ * falla por bloqueo no dejó cambios.
+ *
+ * @author Nelo Angelo
+ */
+public class RetryPolicy {
+
+    /**
+     * Operación de base de datos que puede reintentarse.
+     */
+    @FunctionalInterface
+    public interface SqlOperation<T> {
+        T run() throws SQLException;
+    }
+
+    // Códigos primarios de SQLite (los extendidos llevan el primario en el byte bajo)
+    private static final int SQLITE_BUSY = 5;
+    private static final int SQLITE_LOCKED = 6;
+
+    private final int maxAttempts;
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+
+    // Estadísticas
+    private final AtomicLong busyEvents = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong lockWaitNanos = new AtomicLong();
+
+    /**
+     * @param maxAttempts Intentos totales, incluido el primero
+     * @param initialDelayMillis Espera antes del primer reintento
+     * @param maxDelayMillis Espera máxima entre intentos
+     * @throws IllegalArgumentException si algún valor es inválido
+     */
+    public RetryPolicy(int maxAttempts, long initialDelayMillis, long maxDelayMillis) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("El número de intentos debe ser mayor a cero");
+        }
+        if (initialDelayMillis < 0 || maxDelayMillis < initialDelayMillis) {
+            throw new IllegalArgumentException("Las esperas entre intentos son inválidas");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Ejecuta la operación y la repite mientras falle por bloqueo.
+     *
+     * @param operation Operación que puede repetirse sin efectos dobles
+     * @return Resultado de la operación
+     * @throws SQLException el error de la operación si no es un bloqueo, o el
+     *                      último bloqueo si se agotaron los intentos
+     */
+    public <T> T execute(SqlOperation<T> operation) throws SQLException {
+        long delay = initialDelayMillis;
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                return operation.run();
+            } catch (SQLException e) {
+                if (!isBusy(e)) {
+                    throw e;
+                }
+                // El intento fallido incluye la espera de busy_timeout
+                busyEvents.incrementAndGet();
+                lockWaitNanos.addAndGet(System.nanoTime() - start);
+                if (attempt >= maxAttempts) {
+                    failures.incrementAndGet();
+                    throw e;
+                }
+            }
+
+            retries.incrementAndGet();
+            long pause = delay > 0 ? ThreadLocalRandom.current().nextLong(delay / 2, delay + 1) : 0;
+            long sleepStart = System.nanoTime();
+            try {
+                TimeUnit.MILLISECONDS.sleep(pause);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                failures.incrementAndGet();
+                throw new SQLException("Reintento interrumpido", ie);
+            } finally {
+                lockWaitNanos.addAndGet(System.nanoTime() - sleepStart);
+            }
+            delay = Math.min(Math.max(delay * 2, 1), maxDelayMillis);
+        }
+    }
+
+    /**
+     * @param e Error de base de datos
+     * @return true si el error se debe a que otra conexión tiene el bloqueo
+     */
+    public static boolean isBusy(SQLException e) {
+        int primary = e.getErrorCode() & 0xFF;
+        if (primary == SQLITE_BUSY || primary == SQLITE_LOCKED) {
+            return true;
+        }
+        // Algunos errores del driver llegan sin código pero con el texto de SQLite
+        String message = e.getMessage();
+        return message != null && (message.contains("SQLITE_BUSY") || message.contains("SQLITE_LOCKED"));
+    }
+
+    /**
+     * Obtiene las estadísticas acumuladas de bloqueos.
+     * @return Instantánea de los contadores
+     */
+    public Stats getStats() {
+        return new Stats(busyEvents.get(), retries.get(), failures.get(),
+                TimeUnit.NANOSECONDS.toMillis(lockWaitNanos.get()));
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Instantánea de las estadísticas de bloqueos.
+     */
+    public static class Stats {
+        private final long busyEvents;
+        private final long retries;
+        private final long failures;
+        private final long lockWaitMillis;
+
+        Stats(long busyEvents, long retries, long failures, long lockWaitMillis) {
+            this.busyEvents = busyEvents;
+            this.retries = retries;
+            this.failures = failures;
+            this.lockWaitMillis = lockWaitMillis;
+        }
+
+        /**
+         * @return Intentos que fallaron por bloqueo
+         */
+        public long getBusyEvents() {
+            return busyEvents;
+        }
+
+        public long getRetries() {
+            return retries;
+        }
+
+        /**
+         * @return Operaciones que fallaron aun después de reintentar
+         */
+        public long getFailures() {
+            return failures;
+        }
+
+        /**
+         * @return Milisegundos esperando bloqueos (intentos fallidos y pausas)
+         */
+        public long getLockWaitMillis() {
+            return lockWaitMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "RetryStats{" +
+                   "bloqueos=" + busyEvents +
+                   ", reintentos=" + retries +
+                   ", fallidos=" + failures +
+                   ", esperaMs=" + lockWaitMillis +
+                   '}';
+        }
+    }
+}
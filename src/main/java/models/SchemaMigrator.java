@@ -0,0 +1,139 @@
+package models;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Motor de migraciones de esquema versionadas.
+ * <p>
+ * La versión del esquema se guarda en {@code PRAGMA user_version} dentro del
+ * propio archivo de la base de datos. Cada migración:
+ * - Tiene un número de versión mayor que la anterior
+ * - Se ejecuta en su propia transacción junto con la actualización de la versión
+ * - Se mide y se reporta su duración
+ * </p>
+ * Si la versión guardada ya es la más reciente no se ejecuta ninguna
+ * sentencia DDL, por lo que el arranque cuesta una sola lectura del PRAGMA.
+ *
+ * @author Nelo Angelo
+ */
+public class SchemaMigrator {
+
+    /**
+     * Paso de migración que recibe una conexión con una transacción abierta.
+     */
+    @FunctionalInterface
+    public interface MigrationStep {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private final List<Migration> migrations = new ArrayList<>();
+
+    /**
+     * Registra una migración. Deben registrarse en orden de versión.
+     *
+     * @param version Versión que alcanza el esquema tras aplicar el paso
+     * @param description Descripción breve para los mensajes de progreso
+     * @param step Sentencias a ejecutar
+     * @return Este mismo objeto, para encadenar registros
+     * @throws IllegalArgumentException si la versión no es mayor a la anterior
+     */
+    public SchemaMigrator add(int version, String description, MigrationStep step) {
+        if (step == null) {
+            throw new IllegalArgumentException("El paso de migración no puede ser nulo");
+        }
+        if (version <= getLatestVersion()) {
+            throw new IllegalArgumentException("Las versiones de migración deben ser crecientes: " + version);
+        }
+        migrations.add(new Migration(version, description, step));
+        return this;
+    }
+
+    /**
+     * Obtiene la versión más reciente registrada.
+     *
+     * @return Última versión, o 0 si no hay migraciones
+     */
+    public int getLatestVersion() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version;
+    }
+
+    /**
+     * Aplica las migraciones pendientes.
+     *
+     * @param conn Conexión en modo autocommit
+     * @return Número de migraciones aplicadas (0 si el esquema ya estaba al día)
+     * @throws SQLException si alguna migración falla; esa migración se revierte
+     */
+    public int migrate(Connection conn) throws SQLException {
+        int current = getUserVersion(conn);
+        if (current >= getLatestVersion()) {
+            return 0;
+        }
+
+        int applied = 0;
+        conn.setAutoCommit(false);
+        try {
+            for (Migration migration : migrations) {
+                if (migration.version <= current) {
+                    continue;
+                }
+                long start = System.nanoTime();
+                try {
+                    migration.step.apply(conn);
+                    setUserVersion(conn, migration.version);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw new SQLException("Error en la migración v" + migration.version
+                        + " (" + migration.description + "): " + e.getMessage(), e);
+                }
+                applied++;
+                System.out.printf("Migración v%d aplicada (%s) en %.1f ms%n",
+                    migration.version, migration.description, (System.nanoTime() - start) / 1_000_000.0);
+            }
+        } finally {
+            conn.setAutoCommit(true);
+        }
+        return applied;
+    }
+
+    /**
+     * Lee la versión del esquema guardada en la base de datos.
+     *
+     * @param conn Conexión abierta
+     * @return Valor de PRAGMA user_version
+     * @throws SQLException si no se puede leer
+     */
+    public static int getUserVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void setUserVersion(Connection conn, int version) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA user_version = " + version);
+        }
+    }
+
+    /**
+     * Migración registrada.
+     */
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final MigrationStep step;
+
+        Migration(int version, String description, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+}
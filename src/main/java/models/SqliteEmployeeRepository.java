@@ -0,0 +1,746 @@
+package models;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Almacenamiento de empleados en SQLite.
+ * <p>
+ * Cada operación toma una conexión del pool de {@link Database}:
+ * - La unicidad de NSS y CURP la garantizan las restricciones UNIQUE
+ * - La búsqueda usa el índice de texto completo employees_fts
+ * - Los cambios se leen de la bitácora employee_changes
+ * - Las operaciones que fallan por bloqueo se repiten con la política de
+ *   reintentos de {@link Database#getRetryPolicy()}
+ * </p>
+ * Los métodos estáticos que reciben una conexión permiten a la importación
+ * y a la cola de escrituras agrupar varias operaciones en una transacción.
+ *
+ * @author Nelo Angelo
+ */
+public class SqliteEmployeeRepository implements EmployeeRepository {
+
+    // SQL para inserción de nuevos empleados
+    public static final String INSERT_SQL = "INSERT INTO employees " +
+            "(first_name, last_name, mothers_last_name, hire_date, birth_date, nss, curp, department, monthly_salary) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Inserción en un solo viaje: devuelve el id generado en la misma sentencia
+    private static final String INSERT_RETURNING_SQL = INSERT_SQL + " RETURNING id";
+
+    // Código primario de SQLite para violaciones de restricciones
+    private static final int SQLITE_CONSTRAINT = 19;
+
+    private static final String UPDATE_SQL = "UPDATE employees SET " +
+            "first_name = ?, last_name = ?, mothers_last_name = ?, hire_date = ?, " +
+            "birth_date = ?, nss = ?, curp = ?, department = ?, monthly_salary = ? " +
+            "WHERE id = ?";
+
+    public static final String DELETE_SQL = "DELETE FROM employees WHERE id = ?";
+    private static final String SELECT_ALL_SQL = "SELECT * FROM employees ORDER BY last_name, first_name";
+    // Proyecciones: solo las columnas que cada vista muestra
+    private static final String SELECT_SUMMARIES_SQL = "SELECT id, first_name, last_name, " +
+            "mothers_last_name, hire_date, nss, department, monthly_salary " +
+            "FROM employees ORDER BY last_name, first_name";
+    // Bitácora de cambios (employee_changes se llena con triggers)
+    // MIN y MAX por separado: juntos en un SELECT obligan a recorrer la tabla
+    private static final String CHANGE_BOUNDS_SQL = "SELECT (SELECT MIN(seq) FROM employee_changes), " +
+            "(SELECT MAX(seq) FROM employee_changes)";
+    private static final String CHANGED_IDS_SQL = "SELECT employee_id FROM employee_changes " +
+            "WHERE seq > ? AND seq <= ?";
+    private static final String CHANGED_SUMMARIES_SQL = "SELECT id, first_name, last_name, " +
+            "mothers_last_name, hire_date, nss, department, monthly_salary FROM employees " +
+            "WHERE id IN (SELECT employee_id FROM employee_changes WHERE seq > ? AND seq <= ?)";
+    // Búsqueda de texto completo: employees_fts entrega las filas ya ordenadas por relevancia
+    private static final String SEARCH_IDS_SQL = "SELECT rowid FROM employees_fts " +
+            "WHERE employees_fts MATCH ? ORDER BY rank LIMIT ?";
+    private static final String SEARCH_SUMMARIES_SQL = "SELECT e.id, e.first_name, e.last_name, " +
+            "e.mothers_last_name, e.hire_date, e.nss, e.department, e.monthly_salary " +
+            "FROM employees_fts JOIN employees e ON e.id = employees_fts.rowid " +
+            "WHERE employees_fts MATCH ? ORDER BY employees_fts.rank LIMIT ?";
+    private static final String SELECT_DIRECTORY_SQL = "SELECT first_name, last_name, " +
+            "mothers_last_name, department, hire_date, monthly_salary " +
+            "FROM employees ORDER BY last_name, first_name";
+
+    // Paginación por llave (keyset): el orden incluye el id para ser estable
+    private static final String SELECT_FIRST_PAGE_SQL = "SELECT * FROM employees " +
+            "ORDER BY last_name, first_name, id LIMIT ?";
+    private static final String SELECT_NEXT_PAGE_SQL = "SELECT * FROM employees " +
+            "WHERE (last_name, first_name, id) > (?, ?, ?) " +
+            "ORDER BY last_name, first_name, id LIMIT ?";
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM employees";
+    private static final String SELECT_BY_ID_SQL = "SELECT * FROM employees WHERE id = ?";
+    private static final String SELECT_BY_NSS_SQL = "SELECT * FROM employees WHERE nss = ?";
+    private static final String SELECT_BY_CURP_SQL = "SELECT * FROM employees WHERE curp = ?";
+
+    // Consultas que ejecuta el repositorio, por nombre; ver getQueries()
+    private static final Map<String, String> QUERIES = queries(
+            "INSERT_SQL", INSERT_SQL,
+            "INSERT_RETURNING_SQL", INSERT_RETURNING_SQL,
+            "UPDATE_SQL", UPDATE_SQL,
+            "DELETE_SQL", DELETE_SQL,
+            "SELECT_ALL_SQL", SELECT_ALL_SQL,
+            "SELECT_SUMMARIES_SQL", SELECT_SUMMARIES_SQL,
+            "CHANGE_BOUNDS_SQL", CHANGE_BOUNDS_SQL,
+            "CHANGED_IDS_SQL", CHANGED_IDS_SQL,
+            "CHANGED_SUMMARIES_SQL", CHANGED_SUMMARIES_SQL,
+            "SEARCH_IDS_SQL", SEARCH_IDS_SQL,
+            "SEARCH_SUMMARIES_SQL", SEARCH_SUMMARIES_SQL,
+            "SELECT_DIRECTORY_SQL", SELECT_DIRECTORY_SQL,
+            "SELECT_FIRST_PAGE_SQL", SELECT_FIRST_PAGE_SQL,
+            "SELECT_NEXT_PAGE_SQL", SELECT_NEXT_PAGE_SQL,
+            "COUNT_SQL", COUNT_SQL,
+            "SELECT_BY_ID_SQL", SELECT_BY_ID_SQL,
+            "SELECT_BY_NSS_SQL", SELECT_BY_NSS_SQL,
+            "SELECT_BY_CURP_SQL", SELECT_BY_CURP_SQL);
+
+    private final boolean readOnly;
+
+    /**
+     * Consultas SQL que ejecuta el repositorio, para revisar sus planes de
+     * ejecución (ver EmployeeController#verifyQueryPlans()).
+     * @return Mapa inmodificable de nombre de la consulta a su SQL, en orden de declaración
+     */
+    public static Map<String, String> getQueries() {
+        return QUERIES;
+    }
+
+    private static Map<String, String> queries(String... namesAndSql) {
+        Map<String, String> queries = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndSql.length; i += 2) {
+            queries.put(namesAndSql[i], namesAndSql[i + 1]);
+        }
+        return Collections.unmodifiableMap(queries);
+    }
+
+    /**
+     * Crea un repositorio de lectura y escritura.
+     */
+    public SqliteEmployeeRepository() {
+        this(false);
+    }
+
+    /**
+     * @param readOnly true para consultar con las conexiones de solo lectura
+     *                 ({@link Database#connectReadOnly()}); las escrituras
+     *                 se rechazan con UnsupportedOperationException
+     */
+    public SqliteEmployeeRepository(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    @Override
+    public int insert(Employee employee) {
+        try {
+            // Una inserción en autocommit que falla por bloqueo no dejó cambios
+            return retry(() -> {
+                try (Connection conn = openForWriting()) {
+                    return insertEmployee(conn, employee);
+                }
+            });
+        } catch (SQLException e) {
+            IllegalArgumentException duplicate = translateUniqueViolation(e);
+            if (duplicate != null) {
+                throw duplicate;
+            }
+            System.err.println("Error al agregar empleado: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al agregar empleado", e);
+        }
+    }
+
+    @Override
+    public boolean update(Employee employee) {
+        try {
+            return retry(() -> {
+                try (Connection conn = openForWriting()) {
+                    return updateEmployeeRow(conn, employee);
+                }
+            });
+        } catch (SQLException e) {
+            IllegalArgumentException duplicate = translateUniqueViolation(e);
+            if (duplicate != null) {
+                throw duplicate;
+            }
+            System.err.println("Error al actualizar empleado: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al actualizar empleado", e);
+        }
+    }
+
+    @Override
+    public boolean delete(int id) {
+        try {
+            return retry(() -> {
+                try (Connection conn = openForWriting();
+                     PreparedStatement pstmt = conn.prepareStatement(DELETE_SQL)) {
+
+                    pstmt.setInt(1, id);
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al eliminar empleado: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al eliminar empleado", e);
+        }
+    }
+
+    @Override
+    public Employee findById(int id) {
+        try {
+            return retry(() -> {
+                try (Connection conn = openForReading();
+                     PreparedStatement pstmt = conn.prepareStatement(SELECT_BY_ID_SQL)) {
+
+                    pstmt.setInt(1, id);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        return rs.next() ? mapResultSetToEmployee(rs) : null;
+                    }
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al buscar empleado por ID: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al buscar empleado", e);
+        }
+    }
+
+    @Override
+    public List<Employee> findAll() {
+        try {
+            return retry(() -> {
+                List<Employee> employees = new ArrayList<>();
+                try (Connection conn = openForReading();
+                     Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(SELECT_ALL_SQL)) {
+
+                    while (rs.next()) {
+                        employees.add(mapResultSetToEmployee(rs));
+                    }
+                }
+                return employees;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al obtener empleados: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al obtener empleados", e);
+        }
+    }
+
+    @Override
+    public List<EmployeeSummary> findSummaries() {
+        try {
+            return retry(() -> {
+                List<EmployeeSummary> summaries = new ArrayList<>();
+                try (Connection conn = openForReading();
+                     Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(SELECT_SUMMARIES_SQL)) {
+
+                    while (rs.next()) {
+                        summaries.add(mapResultSetToSummary(rs));
+                    }
+                }
+                return summaries;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al obtener resumen de empleados: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al obtener empleados", e);
+        }
+    }
+
+    @Override
+    public List<EmployeeDirectoryEntry> findDirectoryEntries() {
+        try {
+            return retry(() -> {
+                List<EmployeeDirectoryEntry> entries = new ArrayList<>();
+                try (Connection conn = openForReading();
+                     Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(SELECT_DIRECTORY_SQL)) {
+
+                    while (rs.next()) {
+                        entries.add(new EmployeeDirectoryEntry(
+                            Employee.formatFullName(rs.getString("first_name"), rs.getString("last_name"),
+                                                    rs.getString("mothers_last_name")),
+                            rs.getString("department"),
+                            readDate(rs, "hire_date"),
+                            rs.getDouble("monthly_salary")
+                        ));
+                    }
+                }
+                return entries;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al obtener directorio de empleados: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al obtener empleados", e);
+        }
+    }
+
+    @Override
+    public List<Employee> findPage(String afterLastName, String afterFirstName, int afterId, int limit) {
+        boolean firstPage = afterLastName == null;
+
+        try {
+            return retry(() -> {
+                List<Employee> employees = new ArrayList<>(Math.min(limit, 1000));
+                try (Connection conn = openForReading();
+                     PreparedStatement pstmt = conn.prepareStatement(firstPage ? SELECT_FIRST_PAGE_SQL : SELECT_NEXT_PAGE_SQL)) {
+
+                    if (firstPage) {
+                        pstmt.setInt(1, limit);
+                    } else {
+                        pstmt.setString(1, afterLastName);
+                        pstmt.setString(2, afterFirstName);
+                        pstmt.setInt(3, afterId);
+                        pstmt.setInt(4, limit);
+                    }
+
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            employees.add(mapResultSetToEmployee(rs));
+                        }
+                    }
+                }
+                return employees;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al obtener página de empleados: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al obtener empleados", e);
+        }
+    }
+
+    @Override
+    public int count() {
+        try {
+            return retry(() -> {
+                try (Connection conn = openForReading();
+                     Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(COUNT_SQL)) {
+
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al contar empleados: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al contar empleados", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * El Stream mantiene ocupada una conexión del pool hasta cerrarse.
+     * </p>
+     */
+    @Override
+    public Stream<Employee> stream(int fetchSize) {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs;
+        try {
+            conn = openForReading();
+            pstmt = conn.prepareStatement(SELECT_ALL_SQL);
+            pstmt.setFetchSize(fetchSize);
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            closeQuietly(pstmt, conn);
+            System.err.println("Error al abrir cursor de empleados: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al obtener empleados", e);
+        }
+
+        final Connection cursorConn = conn;
+        final PreparedStatement cursorStmt = pstmt;
+        final ResultSet cursor = rs;
+
+        Spliterator<Employee> spliterator = new Spliterators.AbstractSpliterator<>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Employee> action) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    action.accept(mapResultSetToEmployee(cursor));
+                    return true;
+                } catch (SQLException e) {
+                    System.err.println("Error al recorrer empleados: " + e.getMessage());
+                    throw new RuntimeException("Error de base de datos al obtener empleados", e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false)
+                .onClose(() -> closeQuietly(cursorStmt, cursorConn));
+    }
+
+    @Override
+    public boolean existsByNss(String nss) {
+        try {
+            return retry(() -> {
+                try (Connection conn = openForReading();
+                     PreparedStatement pstmt = conn.prepareStatement(SELECT_BY_NSS_SQL)) {
+
+                    pstmt.setString(1, nss);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        return rs.next();
+                    }
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al verificar NSS: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al verificar NSS", e);
+        }
+    }
+
+    @Override
+    public boolean existsByCurp(String curp) {
+        try {
+            return retry(() -> {
+                try (Connection conn = openForReading();
+                     PreparedStatement pstmt = conn.prepareStatement(SELECT_BY_CURP_SQL)) {
+
+                    pstmt.setString(1, curp);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        return rs.next();
+                    }
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al verificar CURP: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al verificar CURP", e);
+        }
+    }
+
+    @Override
+    public List<Integer> searchIds(String text, int limit) {
+        String query = toMatchQuery(text);
+        if (query == null) {
+            return new ArrayList<>();
+        }
+
+        try {
+            return retry(() -> {
+                List<Integer> ids = new ArrayList<>();
+                try (Connection conn = openForReading();
+                     PreparedStatement pstmt = conn.prepareStatement(SEARCH_IDS_SQL)) {
+                    pstmt.setString(1, query);
+                    pstmt.setInt(2, limit);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            ids.add(rs.getInt(1));
+                        }
+                    }
+                }
+                return ids;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al buscar empleados: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al buscar empleados", e);
+        }
+    }
+
+    @Override
+    public List<EmployeeSummary> search(String text, int limit) {
+        String query = toMatchQuery(text);
+        if (query == null) {
+            return new ArrayList<>();
+        }
+
+        try {
+            return retry(() -> {
+                List<EmployeeSummary> summaries = new ArrayList<>();
+                try (Connection conn = openForReading();
+                     PreparedStatement pstmt = conn.prepareStatement(SEARCH_SUMMARIES_SQL)) {
+                    pstmt.setString(1, query);
+                    pstmt.setInt(2, limit);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            summaries.add(mapResultSetToSummary(rs));
+                        }
+                    }
+                }
+                return summaries;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al buscar empleados: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al buscar empleados", e);
+        }
+    }
+
+    @Override
+    public long getLatestChangeSequence() {
+        try {
+            return retry(() -> {
+                try (Connection conn = openForReading();
+                     Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(CHANGE_BOUNDS_SQL)) {
+                    return rs.next() ? rs.getLong(2) : 0L;
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al leer bitácora de cambios: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al leer la bitácora de cambios", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * El costo depende del número de cambios, no del número de empleados:
+     * las consultas recorren el rango de seq y buscan cada empleado por id.
+     * Todo se lee en una sola transacción para obtener una vista consistente.
+     * </p>
+     */
+    @Override
+    public EmployeeChangeSet getChangesSince(long sinceSequence) {
+        try {
+            return retry(() -> {
+                try (Connection conn = openForReading()) {
+                    return readChangesSince(conn, sinceSequence);
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al leer bitácora de cambios: " + e.getMessage());
+            throw new RuntimeException("Error de base de datos al leer la bitácora de cambios", e);
+        }
+    }
+
+    private static EmployeeChangeSet readChangesSince(Connection conn, long sinceSequence) throws SQLException {
+        List<EmployeeSummary> upserted = new ArrayList<>();
+        List<Integer> deletedIds = new ArrayList<>();
+
+        conn.setAutoCommit(false);
+        try {
+            long oldest;
+            long latest;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(CHANGE_BOUNDS_SQL)) {
+                rs.next();
+                oldest = rs.getLong(1);
+                latest = rs.getLong(2);
+            }
+            // Secuencia recortada de la bitácora o de otra base de datos
+            if (sinceSequence < 0 || sinceSequence > latest || (oldest > 0 && sinceSequence < oldest - 1)) {
+                return new EmployeeChangeSet(latest, true, upserted, deletedIds);
+            }
+            if (sinceSequence == latest) {
+                return new EmployeeChangeSet(latest, false, upserted, deletedIds);
+            }
+
+            Set<Integer> changedIds = new LinkedHashSet<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(CHANGED_IDS_SQL)) {
+                pstmt.setLong(1, sinceSequence);
+                pstmt.setLong(2, latest);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        changedIds.add(rs.getInt(1));
+                    }
+                }
+            }
+
+            Set<Integer> existingIds = new HashSet<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(CHANGED_SUMMARIES_SQL)) {
+                pstmt.setLong(1, sinceSequence);
+                pstmt.setLong(2, latest);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        EmployeeSummary summary = mapResultSetToSummary(rs);
+                        existingIds.add(summary.getId());
+                        upserted.add(summary);
+                    }
+                }
+            }
+
+            // Lo que cambió y ya no existe fue eliminado
+            for (Integer id : changedIds) {
+                if (!existingIds.contains(id)) {
+                    deletedIds.add(id);
+                }
+            }
+            return new EmployeeChangeSet(latest, false, upserted, deletedIds);
+        } finally {
+            conn.commit();
+        }
+    }
+
+    // ---- Operaciones sobre una conexión dada ----
+
+    /**
+     * Inserta un empleado con la conexión dada y devuelve su id generado.
+     * @throws SQLException si falla la inserción (incluye violaciones UNIQUE)
+     */
+    public static int insertEmployee(Connection conn, Employee employee) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_RETURNING_SQL)) {
+            setEmployeeParameters(pstmt, employee);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("La inserción no devolvió el id generado");
+                }
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Actualiza la fila de un empleado con la conexión dada.
+     * @return true si la fila existía
+     * @throws SQLException si falla la actualización (incluye violaciones UNIQUE)
+     */
+    public static boolean updateEmployeeRow(Connection conn, Employee employee) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+            setEmployeeParameters(pstmt, employee);
+            pstmt.setInt(10, employee.getId());
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Convierte una violación de UNIQUE sobre NSS o CURP en el mismo error de
+     * validación que ve el usuario en el formulario.
+     * @return La excepción equivalente, o null si el error es de otro tipo
+     */
+    public static IllegalArgumentException translateUniqueViolation(SQLException e) {
+        String message = e.getMessage();
+        if (e.getErrorCode() != SQLITE_CONSTRAINT || message == null || !message.contains("UNIQUE")) {
+            return null;
+        }
+        if (message.contains("employees.nss")) {
+            return new IllegalArgumentException("El NSS ya está registrado");
+        }
+        if (message.contains("employees.curp")) {
+            return new IllegalArgumentException("La CURP ya está registrada");
+        }
+        return null;
+    }
+
+    public static void setEmployeeParameters(PreparedStatement pstmt, Employee employee) throws SQLException {
+        pstmt.setString(1, employee.getFirstName());
+        pstmt.setString(2, employee.getLastName());
+        pstmt.setString(3, employee.getMothersLastName());
+        pstmt.setLong(4, employee.getHireDate().toEpochDay());
+        pstmt.setLong(5, employee.getBirthDate().toEpochDay());
+        pstmt.setString(6, employee.getNss());
+        pstmt.setString(7, employee.getCurp());
+        pstmt.setString(8, employee.getDepartment());
+        pstmt.setDouble(9, employee.getMonthlySalary());
+    }
+
+    // ---- Métodos auxiliares ----
+
+    private static <T> T retry(RetryPolicy.SqlOperation<T> operation) throws SQLException {
+        return Database.getRetryPolicy().execute(operation);
+    }
+
+    private Connection openForReading() throws SQLException {
+        return readOnly ? Database.connectReadOnly() : Database.connect();
+    }
+
+    private Connection openForWriting() throws SQLException {
+        if (readOnly) {
+            throw new UnsupportedOperationException("El almacenamiento de empleados es de solo lectura");
+        }
+        return Database.connect();
+    }
+
+    /**
+     * Lee una columna de fecha guardada como días desde 1970-01-01.
+     * Acepta también el formato de texto ISO de bases de datos sin migrar.
+     */
+    static LocalDate readDate(ResultSet rs, String column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof Number) {
+            return LocalDate.ofEpochDay(((Number) value).longValue());
+        }
+        String text = String.valueOf(value);
+        if (text.indexOf('-', 1) < 0) {
+            // Entero guardado en una columna con afinidad de texto
+            return LocalDate.ofEpochDay(Long.parseLong(text));
+        }
+        return LocalDate.parse(text);
+    }
+
+    /**
+     * Convierte el texto del usuario en una consulta MATCH de FTS5: cada
+     * palabra se entrecomilla (para que no se interprete como operador) y se
+     * busca como prefijo.
+     * @return La consulta, o null si el texto no contiene palabras
+     */
+    static String toMatchQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder query = new StringBuilder();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (query.length() > 0) {
+                query.append(' ');
+            }
+            query.append('"').append(word).append("\"*");
+        }
+        return query.length() > 0 ? query.toString() : null;
+    }
+
+    // Cerrar el statement también cierra su ResultSet; la conexión vuelve al pool
+    private static void closeQuietly(Statement stmt, Connection conn) {
+        try {
+            if (stmt != null) {
+                stmt.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar consulta: " + e.getMessage());
+        }
+        try {
+            if (conn != null) {
+                conn.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar conexión: " + e.getMessage());
+        }
+    }
+
+    private static EmployeeSummary mapResultSetToSummary(ResultSet rs) throws SQLException {
+        return new EmployeeSummary(
+            rs.getInt("id"),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            rs.getString("mothers_last_name"),
+            readDate(rs, "hire_date"),
+            rs.getString("nss"),
+            rs.getString("department"),
+            rs.getDouble("monthly_salary")
+        );
+    }
+
+    private static Employee mapResultSetToEmployee(ResultSet rs) throws SQLException {
+        return new Employee(
+            rs.getInt("id"),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            rs.getString("mothers_last_name"),
+            readDate(rs, "hire_date"),
+            readDate(rs, "birth_date"),
+            rs.getString("nss"),
+            rs.getString("curp"),
+            rs.getString("department"),
+            rs.getDouble("monthly_salary")
+        );
+    }
+}
@@ -0,0 +1,326 @@
+package models;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Almacenamiento de usuarios en la tabla users de SQLite.
+ * Las operaciones que fallan por bloqueo se repiten con la política de
+ * reintentos de {@link Database#getRetryPolicy()}.
+ *
+ * @author Nelo Angelo
+ */
+public class SqliteUserRepository implements UserRepository {
+
+    private static final String SELECT_BY_USERNAME_SQL = "SELECT * FROM users WHERE username = ?";
+    private static final String SELECT_BY_ID_SQL = "SELECT id, username, is_admin FROM users WHERE id = ?";
+    private static final String SELECT_ALL_SQL = "SELECT id, username, is_admin FROM users ORDER BY username";
+    private static final String INSERT_SQL = "INSERT INTO users (username, password, is_admin) VALUES (?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE users SET username = ?, is_admin = ? WHERE id = ?";
+    private static final String UPDATE_PASSWORD_SQL = "UPDATE users SET password = ? WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM users WHERE id = ?";
+    private static final String USERNAME_EXISTS_SQL = "SELECT 1 FROM users WHERE username = ? AND id != ?";
+    private static final String COUNT_ADMINS_SQL = "SELECT COUNT(*) FROM users WHERE is_admin = TRUE";
+    private static final String DELETE_EXPIRED_SESSIONS_SQL = "DELETE FROM sessions WHERE expires_at <= ?";
+    private static final String INSERT_SESSION_SQL =
+        "INSERT OR REPLACE INTO sessions (token_hash, user_id, expires_at) VALUES (?, ?, ?)";
+    private static final String SELECT_SESSION_USER_SQL =
+        "SELECT u.id, u.username, u.is_admin FROM sessions s JOIN users u ON u.id = s.user_id " +
+        "WHERE s.token_hash = ? AND s.expires_at > ?";
+    private static final String SELECT_SESSION_EXPIRY_SQL = "SELECT expires_at FROM sessions WHERE token_hash = ?";
+    private static final String DELETE_SESSION_SQL = "DELETE FROM sessions WHERE token_hash = ?";
+    private static final String DELETE_USER_SESSIONS_SQL = "DELETE FROM sessions WHERE user_id = ?";
+
+    @Override
+    public User findByUsername(String username) {
+        try {
+            return retry(() -> {
+                try (Connection conn = Database.connect();
+                     PreparedStatement pstmt = conn.prepareStatement(SELECT_BY_USERNAME_SQL)) {
+
+                    pstmt.setString(1, username);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (!rs.next()) {
+                            return null;
+                        }
+                        return new User(
+                            rs.getInt("id"),
+                            rs.getString("username"),
+                            rs.getString("password"),
+                            rs.getBoolean("is_admin")
+                        );
+                    }
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error durante autenticación: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public User findById(int id) {
+        try {
+            return retry(() -> {
+                try (Connection conn = Database.connect();
+                     PreparedStatement pstmt = conn.prepareStatement(SELECT_BY_ID_SQL)) {
+
+                    pstmt.setInt(1, id);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        return rs.next() ? mapWithoutPassword(rs) : null;
+                    }
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al obtener usuario por ID: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public List<User> findAll() {
+        try {
+            return retry(() -> {
+                List<User> users = new ArrayList<>();
+                try (Connection conn = Database.connect();
+                     Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(SELECT_ALL_SQL)) {
+
+                    while (rs.next()) {
+                        users.add(mapWithoutPassword(rs));
+                    }
+                }
+                return users;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al obtener usuarios: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public boolean insert(String username, String passwordHash, boolean isAdmin) {
+        try {
+            // Si el bloqueo impidió la inserción no quedó nada escrito; un
+            // duplicado lo rechaza la restricción UNIQUE de username
+            return retry(() -> {
+                try (Connection conn = Database.connect();
+                     PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+
+                    pstmt.setString(1, username);
+                    pstmt.setString(2, passwordHash);
+                    pstmt.setBoolean(3, isAdmin);
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al crear usuario: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean update(User user) {
+        try {
+            return retry(() -> {
+                try (Connection conn = Database.connect();
+                     PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+
+                    pstmt.setString(1, user.getUsername());
+                    pstmt.setBoolean(2, user.isAdmin());
+                    pstmt.setInt(3, user.getId());
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al actualizar usuario: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean updatePassword(int id, String passwordHash) {
+        try {
+            return retry(() -> {
+                try (Connection conn = Database.connect();
+                     PreparedStatement pstmt = conn.prepareStatement(UPDATE_PASSWORD_SQL)) {
+
+                    pstmt.setString(1, passwordHash);
+                    pstmt.setInt(2, id);
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al actualizar contraseña: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean delete(int id) {
+        try {
+            return retry(() -> {
+                // Las sesiones del usuario se borran en cascada (foreign_keys = ON)
+                try (Connection conn = Database.connect();
+                     PreparedStatement pstmt = conn.prepareStatement(DELETE_SQL)) {
+
+                    pstmt.setInt(1, id);
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al eliminar usuario: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean usernameExists(String username, int excludeUserId) {
+        try {
+            return retry(() -> {
+                try (Connection conn = Database.connect();
+                     PreparedStatement pstmt = conn.prepareStatement(USERNAME_EXISTS_SQL)) {
+
+                    pstmt.setString(1, username);
+                    pstmt.setInt(2, excludeUserId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        return rs.next();
+                    }
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al verificar nombre de usuario: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public int countAdmins() {
+        try {
+            return retry(() -> {
+                try (Connection conn = Database.connect();
+                     Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(COUNT_ADMINS_SQL)) {
+
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al contar administradores: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public boolean insertSession(String tokenHash, int userId, long expiresAt) {
+        try {
+            return retry(() -> {
+                try (Connection conn = Database.connect();
+                     PreparedStatement purge = conn.prepareStatement(DELETE_EXPIRED_SESSIONS_SQL);
+                     PreparedStatement pstmt = conn.prepareStatement(INSERT_SESSION_SQL)) {
+
+                    purge.setLong(1, System.currentTimeMillis());
+                    purge.executeUpdate();
+                    pstmt.setString(1, tokenHash);
+                    pstmt.setInt(2, userId);
+                    pstmt.setLong(3, expiresAt);
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al guardar sesión: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public User findSessionUser(String tokenHash, long now) {
+        try {
+            return retry(() -> {
+                try (Connection conn = Database.connect();
+                     PreparedStatement pstmt = conn.prepareStatement(SELECT_SESSION_USER_SQL)) {
+
+                    pstmt.setString(1, tokenHash);
+                    pstmt.setLong(2, now);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        return rs.next() ? mapWithoutPassword(rs) : null;
+                    }
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al validar sesión: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public long getSessionExpiry(String tokenHash) {
+        try {
+            return retry(() -> {
+                try (Connection conn = Database.connect();
+                     PreparedStatement pstmt = conn.prepareStatement(SELECT_SESSION_EXPIRY_SQL)) {
+
+                    pstmt.setString(1, tokenHash);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        return rs.next() ? rs.getLong(1) : 0L;
+                    }
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al leer sesión: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public boolean deleteSession(String tokenHash) {
+        try {
+            return retry(() -> {
+                try (Connection conn = Database.connect();
+                     PreparedStatement pstmt = conn.prepareStatement(DELETE_SESSION_SQL)) {
+
+                    pstmt.setString(1, tokenHash);
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al eliminar sesión: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public int deleteSessions(int userId) {
+        try {
+            return retry(() -> {
+                try (Connection conn = Database.connect();
+                     PreparedStatement pstmt = conn.prepareStatement(DELETE_USER_SESSIONS_SQL)) {
+
+                    pstmt.setInt(1, userId);
+                    return pstmt.executeUpdate();
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al eliminar sesiones: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private static <T> T retry(RetryPolicy.SqlOperation<T> operation) throws SQLException {
+        return Database.getRetryPolicy().execute(operation);
+    }
+
+    private static User mapWithoutPassword(ResultSet rs) throws SQLException {
+        return new User(
+            rs.getInt("id"),
+            rs.getString("username"),
+            "", // No devolver la contraseña por seguridad
+            rs.getBoolean("is_admin")
+        );
+    }
+}
@@ -0,0 +1,103 @@
+package models;
+
+import java.util.List;
+
+/**
+ * Almacenamiento de usuarios del sistema.
+ * <p>
+ * Las contraseñas llegan ya hasheadas; el hash con BCrypt y la verificación
+ * de credenciales son responsabilidad de AuthController. Los métodos no
+ * lanzan excepciones por errores de almacenamiento: se reportan en la
+ * consola y se devuelve false o null, como hace el controlador.
+ * </p>
+ * La implementación activa se obtiene con {@link Repositories#users()}.
+ *
+ * @author Nelo Angelo
+ */
+public interface UserRepository {
+
+    /**
+     * @param username Nombre de usuario
+     * @return Usuario con el hash de su contraseña, o null si no existe
+     */
+    User findByUsername(String username);
+
+    /**
+     * @param id ID del usuario
+     * @return Usuario sin contraseña, o null si no existe
+     */
+    User findById(int id);
+
+    /**
+     * @return Usuarios sin contraseña ordenados por nombre de usuario
+     */
+    List<User> findAll();
+
+    /**
+     * @return true si se guardó; false si el nombre ya existe o hubo error
+     */
+    boolean insert(String username, String passwordHash, boolean isAdmin);
+
+    /**
+     * Actualiza nombre de usuario y rol (no la contraseña).
+     * @return true si el usuario existía
+     */
+    boolean update(User user);
+
+    /**
+     * @return true si el usuario existía
+     */
+    boolean updatePassword(int id, String passwordHash);
+
+    /**
+     * @return true si el usuario existía
+     */
+    boolean delete(int id);
+
+    /**
+     * @param username Nombre a buscar
+     * @param excludeUserId ID que no se considera (0 para no excluir ninguno)
+     * @return true si otro usuario ya usa ese nombre
+     */
+    boolean usernameExists(String username, int excludeUserId);
+
+    /**
+     * @return Número de usuarios administradores
+     */
+    int countAdmins();
+
+    // ---- Sesiones (ver AuthController#startSession) ----
+
+    /**
+     * Guarda una sesión y descarta las que ya vencieron.
+     * @param tokenHash Hash del token de la sesión
+     * @param userId Usuario de la sesión
+     * @param expiresAt Vencimiento (milisegundos desde 1970)
+     * @return true si se guardó
+     */
+    boolean insertSession(String tokenHash, int userId, long expiresAt);
+
+    /**
+     * @param tokenHash Hash del token de la sesión
+     * @param now Momento actual (milisegundos desde 1970)
+     * @return Usuario sin contraseña si la sesión existe y no ha vencido, o null
+     */
+    User findSessionUser(String tokenHash, long now);
+
+    /**
+     * @param tokenHash Hash del token de la sesión
+     * @return Vencimiento de la sesión, o 0 si no existe
+     */
+    long getSessionExpiry(String tokenHash);
+
+    /**
+     * @return true si la sesión existía
+     */
+    boolean deleteSession(String tokenHash);
+
+    /**
+     * Termina todas las sesiones guardadas de un usuario.
+     * @return Número de sesiones eliminadas
+     */
+    int deleteSessions(int userId);
+}
@@ -2,22 +2,43 @@ package views;
 
 import controllers.AuthController;
 import controllers.EmployeeController;
+import controllers.EmployeeExporter;
+import controllers.EmployeeImporter;
+import models.Database;
+import models.DatabaseBackup;
 import models.Employee;
+import models.EmployeeChangeSet;
+import models.EmployeeSummary;
+import models.Repositories;
 import models.User;
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * Vista principal para administradores del sistema.
  * <p>
  * Proporciona funcionalidades completas de administración:
  * - Gestión CRUD de empleados
+ * - Búsqueda de empleados por texto
+ * - Importación y exportación de empleados
  * - Gestión CRUD de usuarios
  * - Cálculo de vacaciones
  * - Cambio de contraseñas
+ * - Respaldo de la base de datos
  * </p>
  * @author Nelo Angelo
  */
@@ -26,7 +47,13 @@ public class AdminView extends JFrame {
 
     private static final long serialVersionUID = 1L;
     private final transient User currentUser;
+    private final String sessionToken;
     private JTable employeeTable;
+    private JTextField searchField;
+    // Última secuencia de la bitácora de cambios reflejada en la tabla
+    private long lastChangeSequence = -1;
+    // Empleado de cada fila de la tabla, por ID; da la llave de orden al aplicar cambios
+    private final transient Map<Integer, EmployeeSummary> shownEmployees = new HashMap<>();
     private JTable userTable;
     private DefaultTableModel employeeTableModel;
     private DefaultTableModel userTableModel;
@@ -36,8 +63,14 @@ public class AdminView extends JFrame {
 
     // Crea una nueva vista de administrador.
     public AdminView(User user) {
+        this(user, null);
+    }
+
+    // Crea una vista de administrador para la sesión indicada (se termina al cerrar sesión).
+    public AdminView(User user, String sessionToken) {
         this.currentUser = user;
-        this.employeeController = new EmployeeController();
+        this.sessionToken = sessionToken;
+        this.employeeController = EmployeeController.create();
         this.authController = new AuthController();
         initializeUI();
         loadEmployees();
@@ -84,17 +117,24 @@ public class AdminView extends JFrame {
         JMenuItem editEmployeeItem = new JMenuItem("Editar Empleado");
         JMenuItem deleteEmployeeItem = new JMenuItem("Eliminar Empleado");
         JMenuItem calculateVacationItem = new JMenuItem("Calcular Vacaciones");
+        JMenuItem importEmployeesItem = new JMenuItem("Importar desde CSV...");
+        JMenuItem exportEmployeesItem = new JMenuItem("Exportar...");
 
         addEmployeeItem.addActionListener(e -> openEmployeeForm(null));
         editEmployeeItem.addActionListener(e -> editSelectedEmployee());
         deleteEmployeeItem.addActionListener(e -> deleteSelectedEmployee());
         calculateVacationItem.addActionListener(e -> calculateVacationForSelected());
+        importEmployeesItem.addActionListener(e -> importEmployeesFromCsv());
+        exportEmployeesItem.addActionListener(e -> exportEmployees());
 
         employeesMenu.add(addEmployeeItem);
         employeesMenu.add(editEmployeeItem);
         employeesMenu.add(deleteEmployeeItem);
         employeesMenu.addSeparator();
         employeesMenu.add(calculateVacationItem);
+        employeesMenu.addSeparator();
+        employeesMenu.add(importEmployeesItem);
+        employeesMenu.add(exportEmployeesItem);
 
         // Menú Usuarios
         JMenu usersMenu = new JMenu("Usuarios");
@@ -107,19 +147,35 @@ public class AdminView extends JFrame {
         usersMenu.add(addUserItem);
         usersMenu.add(refreshUsersItem);
 
+        // Menú Sistema
+        JMenu systemMenu = new JMenu("Sistema");
+        JMenuItem backupItem = new JMenuItem("Respaldar Base de Datos");
+        backupItem.addActionListener(e -> backupDatabase());
+        systemMenu.add(backupItem);
+
+        // Sin base de datos no hay importación masiva ni respaldos
+        boolean sqlite = Repositories.getBackend() == Repositories.Backend.SQLITE;
+        importEmployeesItem.setEnabled(sqlite);
+        backupItem.setEnabled(sqlite);
+
         // Menú Salir
         JMenu exitMenu = new JMenu("Salir");
+        JMenuItem employeeViewItem = new JMenuItem("Vista de Empleado");
         JMenuItem logoutItem = new JMenuItem("Cerrar Sesión");
         JMenuItem exitItem = new JMenuItem("Salir del Sistema");
 
+        employeeViewItem.addActionListener(e -> openEmployeeView());
+        employeeViewItem.setEnabled(sessionToken != null);
         logoutItem.addActionListener(e -> logout());
         exitItem.addActionListener(e -> System.exit(0));
 
+        exitMenu.add(employeeViewItem);
         exitMenu.add(logoutItem);
         exitMenu.add(exitItem);
 
         menuBar.add(employeesMenu);
         menuBar.add(usersMenu);
+        menuBar.add(systemMenu);
         menuBar.add(Box.createHorizontalGlue());
         menuBar.add(exitMenu);
 
@@ -166,6 +222,31 @@ public class AdminView extends JFrame {
         JScrollPane scrollPane = new JScrollPane(employeeTable);
         panel.add(scrollPane, BorderLayout.CENTER);
 
+        // Búsqueda por nombre, NSS, CURP o departamento mientras se escribe
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        searchField = new JTextField(30);
+        Timer searchTimer = new Timer(250, e -> loadEmployees());
+        searchTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+        });
+        searchPanel.add(new JLabel("Buscar:"));
+        searchPanel.add(searchField);
+        panel.add(searchPanel, BorderLayout.NORTH);
+
         // Panel de botones para empleados
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         JButton addButton = new JButton("Agregar");
@@ -259,36 +340,149 @@ public class AdminView extends JFrame {
     }
 
     private void loadEmployees() {
-        SwingWorker<Void, Void> worker = new SwingWorker<>() {
+        String text = searchField.getText().trim();
+        if (text.isEmpty()) {
+            loadEmployeeRows(employeeController::getEmployeeSummaries);
+        } else {
+            loadEmployeeRows(() -> employeeController.searchEmployees(text, EmployeeController.DEFAULT_SEARCH_LIMIT));
+        }
+    }
+
+    private void loadEmployeeRows(Supplier<List<EmployeeSummary>> query) {
+        SwingWorker<List<EmployeeSummary>, Void> worker = new SwingWorker<>() {
+            private long sequence;
+
             @Override
-            protected Void doInBackground() {
+            protected List<EmployeeSummary> doInBackground() {
+                // Se lee antes de la consulta: un cambio concurrente se vuelve a aplicar después
+                sequence = employeeController.getLatestChangeSequence();
+                return query.get();
+            }
+
+            @Override
+            protected void done() {
                 try {
-                    List<Employee> employees = employeeController.getAllEmployees();
+                    List<EmployeeSummary> employees = get();
                     employeeTableModel.setRowCount(0);
+                    shownEmployees.clear();
 
-                    for (Employee emp : employees) {
-                        Object[] row = {
-                            emp.getId(),
-                            emp.getFullName(),
-                            emp.getHireDate(),
-                            emp.getNss(),
-                            emp.getDepartment(),
-                            emp.getMonthlySalary()
-                        };
-                        employeeTableModel.addRow(row);
+                    for (EmployeeSummary emp : employees) {
+                        employeeTableModel.addRow(toRow(emp));
+                        shownEmployees.put(emp.getId(), emp);
                     }
+                    lastChangeSequence = sequence;
                 } catch (Exception e) {
-                    SwingUtilities.invokeLater(()
-                            -> JOptionPane.showMessageDialog(AdminView.this,
-                                    "Error al cargar empleados: " + e.getMessage(),
-                                    "Error", JOptionPane.ERROR_MESSAGE));
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(AdminView.this,
+                            "Error al cargar empleados: " + cause.getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
                 }
-                return null;
             }
         };
         worker.execute();
     }
 
+    /**
+     * Aplica a la tabla solo los empleados que cambiaron desde la última
+     * carga. Con una búsqueda activa se repite la búsqueda completa.
+     */
+    private void refreshEmployees() {
+        if (!searchField.getText().trim().isEmpty()) {
+            loadEmployees();
+            return;
+        }
+        final long since = lastChangeSequence;
+        SwingWorker<EmployeeChangeSet, Void> worker = new SwingWorker<>() {
+            @Override
+            protected EmployeeChangeSet doInBackground() {
+                return employeeController.getChangesSince(since);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    EmployeeChangeSet changes = get();
+                    if (changes.isFullReloadRequired()) {
+                        loadEmployees();
+                    } else {
+                        applyEmployeeChanges(changes);
+                    }
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(AdminView.this,
+                            "Error al actualizar empleados: " + cause.getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void applyEmployeeChanges(EmployeeChangeSet changes) {
+        Map<Integer, EmployeeSummary> upserted = new HashMap<>();
+        for (EmployeeSummary emp : changes.getUpserted()) {
+            upserted.put(emp.getId(), emp);
+        }
+        Set<Integer> deleted = new HashSet<>(changes.getDeletedIds());
+
+        // Un solo recorrido del modelo en memoria; la base de datos solo entregó el delta
+        List<EmployeeSummary> toInsert = new ArrayList<>();
+        for (int row = employeeTableModel.getRowCount() - 1; row >= 0 && !(upserted.isEmpty() && deleted.isEmpty()); row--) {
+            Integer id = (Integer) employeeTableModel.getValueAt(row, 0);
+            EmployeeSummary emp = upserted.remove(id);
+            if (emp != null) {
+                EmployeeSummary previous = shownEmployees.put(id, emp);
+                if (previous != null && EmployeeSummary.NAME_ORDER.compare(previous, emp) == 0) {
+                    Object[] values = toRow(emp);
+                    for (int col = 1; col < values.length; col++) {
+                        employeeTableModel.setValueAt(values[col], row, col);
+                    }
+                } else {
+                    // Cambió el nombre: la fila se mueve a su nueva posición
+                    employeeTableModel.removeRow(row);
+                    toInsert.add(emp);
+                }
+            } else if (deleted.remove(id)) {
+                employeeTableModel.removeRow(row);
+                shownEmployees.remove(id);
+            }
+        }
+        toInsert.addAll(upserted.values());
+        for (EmployeeSummary emp : toInsert) {
+            shownEmployees.put(emp.getId(), emp);
+            employeeTableModel.insertRow(sortedRowFor(emp), toRow(emp));
+        }
+        lastChangeSequence = changes.getLatestSequence();
+    }
+
+    // Búsqueda binaria sobre el modelo, que conserva el orden de la consulta
+    // (apellido, nombre, id); así una fila nueva no queda al final de la tabla
+    private int sortedRowFor(EmployeeSummary emp) {
+        int low = 0;
+        int high = employeeTableModel.getRowCount();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            EmployeeSummary other = shownEmployees.get((Integer) employeeTableModel.getValueAt(mid, 0));
+            if (other != null && EmployeeSummary.NAME_ORDER.compare(other, emp) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Object[] toRow(EmployeeSummary emp) {
+        return new Object[]{
+            emp.getId(),
+            emp.getFullName(),
+            emp.getHireDate(),
+            emp.getNss(),
+            emp.getDepartment(),
+            emp.getMonthlySalary()
+        };
+    }
+
     private void loadUsers() {
         SwingWorker<Void, Void> worker = new SwingWorker<>() {
             @Override
@@ -324,7 +518,7 @@ public class AdminView extends JFrame {
         form.addWindowListener(new java.awt.event.WindowAdapter() {
             @Override
             public void windowClosed(java.awt.event.WindowEvent windowEvent) {
-                loadEmployees();
+                refreshEmployees();
             }
         });
     }
@@ -360,7 +554,7 @@ public class AdminView extends JFrame {
                     JOptionPane.showMessageDialog(this,
                             "Empleado eliminado correctamente.",
                             "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                    loadEmployees();
+                    refreshEmployees();
                 } else {
                     JOptionPane.showMessageDialog(this,
                             "Error al eliminar el empleado.",
@@ -391,6 +585,160 @@ public class AdminView extends JFrame {
         }
     }
 
+    private void importEmployeesFromCsv() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Importar empleados");
+        chooser.setFileFilter(new FileNameExtensionFilter("Archivos CSV", "csv"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path csvFile = chooser.getSelectedFile().toPath();
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+        SwingWorker<EmployeeImporter.ImportResult, Void> worker = new SwingWorker<>() {
+            @Override
+            protected EmployeeImporter.ImportResult doInBackground() {
+                return employeeController.importEmployees(csvFile);
+            }
+
+            @Override
+            protected void done() {
+                setCursor(Cursor.getDefaultCursor());
+                try {
+                    showImportResult(get());
+                    loadEmployees();
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(AdminView.this,
+                            "Error al importar empleados: " + cause.getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void exportEmployees() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Exportar empleados");
+        chooser.setAcceptAllFileFilterUsed(false);
+        FileNameExtensionFilter csvFilter = new FileNameExtensionFilter("CSV (*.csv)", "csv");
+        FileNameExtensionFilter jsonFilter = new FileNameExtensionFilter("JSON Lines (*.jsonl)", "jsonl");
+        chooser.addChoosableFileFilter(csvFilter);
+        chooser.addChoosableFileFilter(jsonFilter);
+        JCheckBox vacationCheck = new JCheckBox("Incluir cálculo de vacaciones");
+        chooser.setAccessory(vacationCheck);
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        EmployeeExporter.Format format = chooser.getFileFilter() == jsonFilter
+                ? EmployeeExporter.Format.JSON_LINES : EmployeeExporter.Format.CSV;
+        Path target = chooser.getSelectedFile().toPath();
+        if (!target.getFileName().toString().contains(".")) {
+            target = target.resolveSibling(target.getFileName() + "." + format.getExtension());
+        }
+        final Path exportFile = target;
+        boolean includeVacation = vacationCheck.isSelected();
+
+        ProgressMonitor monitor = new ProgressMonitor(this, "Exportando empleados...", null, 0, 100);
+        monitor.setMillisToDecideToPopup(200);
+
+        SwingWorker<EmployeeExporter.ExportResult, int[]> worker = new SwingWorker<>() {
+            @Override
+            protected EmployeeExporter.ExportResult doInBackground() {
+                return employeeController.exportEmployees(exportFile, format, includeVacation,
+                        (exported, total) -> publish(new int[]{exported, total}));
+            }
+
+            @Override
+            protected void process(List<int[]> chunks) {
+                int[] last = chunks.get(chunks.size() - 1);
+                monitor.setProgress(last[1] == 0 ? 100 : (int) (100L * last[0] / last[1]));
+                monitor.setNote(String.format("%,d de %,d empleados", last[0], last[1]));
+            }
+
+            @Override
+            protected void done() {
+                monitor.close();
+                try {
+                    EmployeeExporter.ExportResult result = get();
+                    JOptionPane.showMessageDialog(AdminView.this,
+                            String.format("Empleados exportados: %,d\nArchivo: %s\nTamaño: %,d bytes\nTiempo: %,d ms",
+                                    result.getRows(), exportFile, result.getBytes(), result.getElapsedMillis()),
+                            "Exportación completada", JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(AdminView.this,
+                            "Error al exportar empleados: " + cause.getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void backupDatabase() {
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        SwingWorker<DatabaseBackup.BackupResult, Void> worker = new SwingWorker<>() {
+            @Override
+            protected DatabaseBackup.BackupResult doInBackground() {
+                return Database.backup();
+            }
+
+            @Override
+            protected void done() {
+                setCursor(Cursor.getDefaultCursor());
+                try {
+                    DatabaseBackup.BackupResult result = get();
+                    JOptionPane.showMessageDialog(AdminView.this,
+                            String.format("Archivo: %s\nTamaño: %,d bytes (%,d comprimido)\n"
+                                    + "Tiempo: %,d ms (%.1f MiB/s)\nSHA-256: %s",
+                                    result.getFile().toAbsolutePath(), result.getDatabaseBytes(),
+                                    result.getCompressedBytes(), result.getElapsedMillis(),
+                                    result.getThroughputMiBPerSecond(), result.getSha256()),
+                            "Respaldo completado", JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(AdminView.this,
+                            "Error al respaldar la base de datos: " + cause.getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void showImportResult(EmployeeImporter.ImportResult result) {
+        String summary = String.format("Filas procesadas: %,d\nImportadas: %,d\nRechazadas: %,d\nTiempo: %,d ms",
+                result.getTotalRows(), result.getImported(), result.getRejected(), result.getElapsedMillis());
+
+        if (result.getErrors().isEmpty()) {
+            JOptionPane.showMessageDialog(this, summary, "Importación completada",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        // Mostrar solo los primeros errores para no saturar el diálogo
+        StringBuilder details = new StringBuilder();
+        int shown = Math.min(result.getErrors().size(), 500);
+        for (int i = 0; i < shown; i++) {
+            details.append(result.getErrors().get(i)).append('\n');
+        }
+        if (shown < result.getErrors().size()) {
+            details.append("... y ").append(result.getErrors().size() - shown).append(" errores más\n");
+        }
+
+        JTextArea errorArea = new JTextArea(details.toString(), 15, 60);
+        errorArea.setEditable(false);
+        JPanel panel = new JPanel(new BorderLayout(5, 5));
+        panel.add(new JLabel("<html>" + summary.replace("\n", "<br>") + "</html>"), BorderLayout.NORTH);
+        panel.add(new JScrollPane(errorArea), BorderLayout.CENTER);
+
+        JOptionPane.showMessageDialog(this, panel, "Importación completada con errores",
+                JOptionPane.WARNING_MESSAGE);
+    }
+
     private void showAddUserDialog() {
         JPanel panel = new JPanel(new GridLayout(4, 2, 5, 5));
 
@@ -601,7 +949,25 @@ public class AdminView extends JFrame {
         }
     }
 
+    // Cambia a la vista de empleado con la misma sesión: se revalida con una
+    // búsqueda en la caché de sesiones, sin volver a pedir la contraseña
+    private void openEmployeeView() {
+        CompletableFuture.supplyAsync(() -> authController.validateSession(sessionToken))
+            .whenComplete((user, error) -> SwingUtilities.invokeLater(() -> {
+                if (error == null && user != null) {
+                    dispose();
+                    new EmployeeView(user, sessionToken).setVisible(true);
+                } else {
+                    JOptionPane.showMessageDialog(this, "La sesión venció. Inicie sesión de nuevo.",
+                            "Sesión", JOptionPane.WARNING_MESSAGE);
+                    logout();
+                }
+            }));
+    }
+
     private void logout() {
+        authController.endSession(sessionToken);
+        LoginView.forgetStoredSession();
         this.dispose();
         LoginView loginView = new LoginView();
         loginView.setVisible(true);
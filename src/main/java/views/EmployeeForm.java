@@ -9,6 +9,8 @@ import java.time.LocalDate;
 import java.time.Period;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Formulario para captura y edición de información de empleados.
@@ -45,7 +47,7 @@ public class EmployeeForm extends JFrame {
     public EmployeeForm(Employee employee) {
         this.employee = employee;
         this.isEditMode = (employee != null);
-        this.controller = new EmployeeController();
+        this.controller = EmployeeController.create();
         
         initializeUI();
         setTitle(isEditMode ? "Editar Empleado" : "Nuevo Empleado");
@@ -157,19 +159,13 @@ public class EmployeeForm extends JFrame {
             emp.setDepartment((String) departmentCombo.getSelectedItem());
             emp.setMonthlySalary(validateSalary(salaryField.getText()));
             
-            // Guardar en BD
-            boolean success = isEditMode ? 
-                controller.updateEmployee(emp) : 
-                controller.addEmployee(emp);
-            
-            if (success) {
-                JOptionPane.showMessageDialog(this, 
-                    "Empleado " + (isEditMode ? "actualizado" : "registrado") + " correctamente",
-                    "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                dispose(); // Cerrar formulario
-            } else {
-                throw new Exception("Error al guardar en la base de datos");
-            }
+            // Guardar en BD sin bloquear la interfaz: el hilo escritor confirma
+            // en grupo y el resultado se muestra al completarse el futuro
+            CompletableFuture<?> pending = isEditMode ?
+                controller.updateEmployeeAsync(emp) :
+                controller.addEmployeeAsync(emp);
+            saveButton.setEnabled(false);
+            pending.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> onSaveCompleted(result, error)));
             
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, 
@@ -178,6 +174,22 @@ public class EmployeeForm extends JFrame {
         }
     }
 
+    private void onSaveCompleted(Object result, Throwable error) {
+        saveButton.setEnabled(true);
+        if (error == null && !Boolean.FALSE.equals(result)) {
+            JOptionPane.showMessageDialog(this, 
+                "Empleado " + (isEditMode ? "actualizado" : "registrado") + " correctamente",
+                "Éxito", JOptionPane.INFORMATION_MESSAGE);
+            dispose(); // Cerrar formulario
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String message = cause != null ? cause.getMessage() : "Error al guardar en la base de datos";
+        JOptionPane.showMessageDialog(this, 
+            "Error: " + message, 
+            "Error", JOptionPane.ERROR_MESSAGE);
+    }
+
     // --- Métodos de validación ---
     
     private String validateTextField(JTextField field, String fieldName) throws Exception {
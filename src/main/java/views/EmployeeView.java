@@ -1,8 +1,10 @@
 package views;
 
+import controllers.AuthController;
 import controllers.EmployeeController;
 import controllers.VacationCalculator;
 import models.Employee;
+import models.EmployeeDirectoryEntry;
 import models.User;
 
 import javax.swing.*;
@@ -12,6 +14,7 @@ import java.awt.event.ActionEvent;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Vista principal para usuarios con rol de empleado.
@@ -27,14 +30,24 @@ public class EmployeeView extends JFrame {
 
     private static final long serialVersionUID = 1L;
     private final transient User currentUser;
+    private final String sessionToken;
     private final transient EmployeeController employeeController;
+    private final transient AuthController authController;
     private JTable employeeTable;
     private DefaultTableModel tableModel;
     private JSpinner percentageSpinner;
 
     public EmployeeView(User user) {
+        this(user, null);
+    }
+
+    // Crea una vista de empleado para la sesión indicada (se termina al cerrar sesión).
+    public EmployeeView(User user, String sessionToken) {
         this.currentUser = user;
-        this.employeeController = new EmployeeController();
+        this.sessionToken = sessionToken;
+        // Esta vista solo consulta: usa el pool de conexiones de solo lectura
+        this.employeeController = EmployeeController.createReadOnly();
+        this.authController = new AuthController();
         initializeUI();
     }
 
@@ -82,9 +95,19 @@ public class EmployeeView extends JFrame {
         JButton calculateButton = new JButton("Calcular Vacaciones");
         calculateButton.addActionListener(this::calculateVacation);
 
+        JButton logoutButton = new JButton("Cerrar Sesión");
+        logoutButton.addActionListener(e -> logout());
+
         controlPanel.add(new JLabel("Prima Vacacional:"));
         controlPanel.add(percentageSpinner);
         controlPanel.add(calculateButton);
+        // Un administrador vuelve a su vista con la misma sesión
+        if (currentUser.isAdmin() && sessionToken != null) {
+            JButton adminButton = new JButton("Vista de Administrador");
+            adminButton.addActionListener(e -> openAdminView());
+            controlPanel.add(adminButton);
+        }
+        controlPanel.add(logoutButton);
 
         mainPanel.add(controlPanel, BorderLayout.SOUTH);
 
@@ -99,12 +122,12 @@ public class EmployeeView extends JFrame {
             @Override
             protected Void doInBackground() {
                 try {
-                    List<Employee> employees = employeeController.getAllEmployees();
+                    List<EmployeeDirectoryEntry> employees = employeeController.getDirectoryEntries();
                     tableModel.setRowCount(0); // Limpiar tabla
 
                     DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
-                    for (Employee emp : employees) {
+                    for (EmployeeDirectoryEntry emp : employees) {
                         Object[] row = {
                             emp.getFullName(),
                             emp.getDepartment(),
@@ -210,4 +233,30 @@ public class EmployeeView extends JFrame {
                 JOptionPane.INFORMATION_MESSAGE
         );
     }
+
+    // La sesión se revalida con una búsqueda en la caché, sin BCrypt; si el
+    // usuario ya no es administrador o la sesión venció se vuelve al login
+    private void openAdminView() {
+        CompletableFuture.supplyAsync(() -> authController.validateSession(sessionToken))
+            .whenComplete((user, error) -> SwingUtilities.invokeLater(() -> {
+                if (error == null && user != null && user.isAdmin()) {
+                    dispose();
+                    new AdminView(user, sessionToken).setVisible(true);
+                } else if (error == null && user != null) {
+                    JOptionPane.showMessageDialog(this, "El usuario ya no tiene permisos de administrador.",
+                            "Sesión", JOptionPane.WARNING_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "La sesión venció. Inicie sesión de nuevo.",
+                            "Sesión", JOptionPane.WARNING_MESSAGE);
+                    logout();
+                }
+            }));
+    }
+
+    private void logout() {
+        authController.endSession(sessionToken);
+        LoginView.forgetStoredSession();
+        dispose();
+        new LoginView().setVisible(true);
+    }
 }
@@ -7,6 +7,10 @@ import controllers.AuthController;
 import javax.swing.border.CompoundBorder;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.prefs.Preferences;
 import models.User;
 
 /**
@@ -22,14 +26,51 @@ import models.User;
 public class LoginView extends JFrame {
 
     private static final long serialVersionUID = 1L;
+    // Token de la sesión recordada en este equipo (solo con sesiones persistentes)
+    private static final String SESSION_TOKEN_KEY = "sessionToken";
     private JTextField usernameField;
     private JPasswordField passwordField;
+    private JButton loginButton;
     private final transient AuthController authController;
 
     // Creación una nueva vista de login
     public LoginView() {
         authController = new AuthController();
         initializeUI();
+        resumeStoredSession();
+    }
+
+    /**
+     * Olvida la sesión recordada en este equipo (al cerrar sesión).
+     */
+    public static void forgetStoredSession() {
+        sessionPreferences().remove(SESSION_TOKEN_KEY);
+    }
+
+    private static Preferences sessionPreferences() {
+        return Preferences.userNodeForPackage(LoginView.class);
+    }
+
+    // Con sesiones persistentes, reabrir la aplicación no pide la contraseña
+    // mientras la sesión guardada no haya vencido
+    private void resumeStoredSession() {
+        if (!AuthController.isSessionPersistenceEnabled()) {
+            return;
+        }
+        String token = sessionPreferences().get(SESSION_TOKEN_KEY, null);
+        if (token == null) {
+            return;
+        }
+        setLoginInProgress(true);
+        CompletableFuture.supplyAsync(() -> authController.validateSession(token))
+            .whenComplete((user, error) -> SwingUtilities.invokeLater(() -> {
+                setLoginInProgress(false);
+                if (error == null && user != null) {
+                    openMainView(user, token);
+                } else {
+                    forgetStoredSession();
+                }
+            }));
     }
 
     private void initializeUI() {
@@ -70,7 +111,7 @@ public class LoginView extends JFrame {
         passwordField.setHorizontalAlignment(JTextField.CENTER);
 
         //LoginButton
-        JButton loginButton = new JButton("Entrar");
+        loginButton = new JButton("Entrar");
         loginButton.setFont(new Font("SansSerif", Font.BOLD, 15));
         loginButton.setBackground(new Color(33, 150, 243));
         loginButton.setForeground(Color.WHITE);
@@ -92,22 +133,79 @@ public class LoginView extends JFrame {
     }
 
     // Intenta autenticar al usuario con las credenciales proporcionadas.
+    // BCrypt y el inicio de la sesión corren fuera del EDT; mientras tanto el
+    // botón muestra el progreso y al EDT solo vuelven el usuario y el token.
     private void performLogin(ActionEvent e) {
         String username = usernameField.getText();
         String password = new String(passwordField.getPassword());
 
-        User user = authController.authenticate(username, password);
+        setLoginInProgress(true);
+        authController.authenticateAsync(username, password)
+            .thenApply(user -> user != null ? new StartedSession(user, startSession(user)) : null)
+            .whenComplete((session, error) -> SwingUtilities.invokeLater(() -> onLoginCompleted(session, error)));
+    }
+
+    // Crea la sesión (y la guarda en la base de datos y en este equipo si
+    // las sesiones son persistentes); se llama desde el hilo de la autenticación
+    private String startSession(User user) {
+        String token = authController.startSession(user);
+        if (AuthController.isSessionPersistenceEnabled()) {
+            sessionPreferences().put(SESSION_TOKEN_KEY, token);
+        }
+        return token;
+    }
 
-        if (user != null) {
-            dispose();
-            if (user.isAdmin()) {
-                new AdminView(user).setVisible(true);
+    private void onLoginCompleted(StartedSession session, Throwable error) {
+        setLoginInProgress(false);
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            String message;
+            if (cause instanceof RejectedExecutionException) {
+                message = "El sistema está ocupado, intente de nuevo en unos segundos";
+            } else if (cause instanceof IllegalStateException) {
+                // Límite de intentos fallidos: el mensaje indica cuánto esperar
+                message = cause.getMessage();
             } else {
-                new EmployeeView(user).setVisible(true);
+                message = "Error al iniciar sesión: " + cause.getMessage();
             }
+            JOptionPane.showMessageDialog(this, message,
+                    "Error de autenticación", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        if (session != null) {
+            openMainView(session.user, session.token);
         } else {
             JOptionPane.showMessageDialog(this, "Usuario o contraseña incorrectos",
                     "Error de autenticación", JOptionPane.ERROR_MESSAGE);
         }
     }
+
+    private void openMainView(User user, String sessionToken) {
+        dispose();
+        if (user.isAdmin()) {
+            new AdminView(user, sessionToken).setVisible(true);
+        } else {
+            new EmployeeView(user, sessionToken).setVisible(true);
+        }
+    }
+
+    private void setLoginInProgress(boolean inProgress) {
+        loginButton.setEnabled(!inProgress);
+        loginButton.setText(inProgress ? "Verificando..." : "Entrar");
+        usernameField.setEnabled(!inProgress);
+        passwordField.setEnabled(!inProgress);
+        setCursor(inProgress ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+    }
+
+    // Usuario autenticado y token de su sesión, entregados al EDT
+    private static class StartedSession {
+        private final User user;
+        private final String token;
+
+        StartedSession(User user, String token) {
+            this.user = user;
+            this.token = token;
+        }
+    }
 }
@@ -3,6 +3,7 @@ import org.junit.jupiter.api.Test;
 import javax.swing.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import models.Database;
 import views.LoginView;
 import org.junit.jupiter.api.function.Executable;
 
@@ -28,6 +29,19 @@ class AppTest {
         assertDoesNotThrow(dbInit, "Error al inicializar la base de datos");
     }
 
+    @Test
+    void testDatabaseSchemaIsUpToDate() {
+        App.initializeDatabase();
+        assertEquals(Database.getLatestSchemaVersion(), Database.getSchemaVersion());
+    }
+
+    @Test
+    void testShutdownHookIsRegisteredOnce() {
+        App.initializeDatabase();
+        App.initializeDatabase();
+        assertFalse(App.registerShutdownHook(), "El hook de cierre ya debía estar registrado");
+    }
+
     @Test
     void testLoginViewCreation() {
         SwingUtilities.invokeLater(() -> {
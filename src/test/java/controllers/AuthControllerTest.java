@@ -2,10 +2,12 @@ package controllers;
 
 import controllers.AuthController;
 import models.Database;
+import models.SqliteUserRepository;
 import models.User;
 import org.junit.jupiter.api.*;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.List;
 
@@ -109,4 +111,67 @@ public class AuthControllerTest {
         User login = controller.authenticate("junit_user_renombrado", "claveNueva456");
         assertNull(login);
     }
+
+    @Test
+    @Order(10)
+    void testAutenticacionAsincronaYMetricas() {
+        assertTrue(controller.createUser("junit_async", "claveAsync1", false));
+        long intentosPrevios = AuthController.getLoginStats().getAttempts();
+
+        User user = controller.authenticateAsync("junit_async", "claveAsync1").join();
+        assertNotNull(user);
+        assertEquals("junit_async", user.getUsername());
+        assertNull(controller.authenticateAsync("junit_async", "otraClave").join());
+
+        AuthController.LoginStats stats = AuthController.getLoginStats();
+        assertEquals(intentosPrevios + 2, stats.getAttempts());
+        assertTrue(stats.getHashMillis() > 0);
+
+        assertTrue(controller.deleteUser(user.getId()));
+    }
+
+    @Test
+    @Order(11)
+    void testSesionesSinRepetirBCrypt() throws Exception {
+        assertTrue(controller.createUser("junit_sesion", "claveSesion1", false));
+        User user = controller.authenticate("junit_sesion", "claveSesion1");
+        String token = controller.startSession(user);
+
+        long intentosPrevios = AuthController.getLoginStats().getAttempts();
+        User validado = controller.validateSession(token);
+        assertNotNull(validado);
+        assertEquals(user.getId(), validado.getId());
+        assertEquals(intentosPrevios, AuthController.getLoginStats().getAttempts());
+        assertNull(controller.validateSession("token-inexistente"));
+        // Cada ventana crea su propio AuthController: la sesión se comparte entre ellas
+        assertEquals(user.getId(), new AuthController().validateSession(token).getId());
+
+        // Cambiar la contraseña termina las sesiones del usuario
+        assertTrue(controller.updateUserPassword(user.getId(), "claveSesion2"));
+        assertNull(controller.validateSession(token));
+
+        // Con persistencia la sesión queda en la tabla sessions (solo el hash)
+        System.setProperty("vacation.session.persist", "true");
+        try {
+            String guardado = controller.startSession(user);
+            SqliteUserRepository repository = new SqliteUserRepository();
+            String tokenHash = AuthController.hashToken(guardado);
+            assertNotEquals(guardado, tokenHash);
+            assertNotNull(repository.findSessionUser(tokenHash, System.currentTimeMillis()));
+
+            controller.endSession(guardado);
+            assertNull(controller.validateSession(guardado));
+            assertNull(repository.findSessionUser(tokenHash, System.currentTimeMillis()));
+            controller.startSession(user);
+        } finally {
+            System.clearProperty("vacation.session.persist");
+        }
+        // La fila de la sesión se borra en cascada con el usuario
+        assertTrue(controller.deleteUser(user.getId()));
+        try (Connection conn = Database.connect(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM sessions WHERE user_id = " + user.getId())) {
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+    }
 }
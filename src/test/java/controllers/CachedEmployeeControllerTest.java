@@ -0,0 +1,149 @@
+package controllers;
+
+import models.Database;
+import models.Employee;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+
+/**
+ *
+ * @author Nelo Angelo
+ */
+public class CachedEmployeeControllerTest {
+
+    private final CachedEmployeeController cache = CachedEmployeeController.getInstance();
+    private Employee empleado;
+
+    @BeforeAll
+    @AfterAll
+    void limpiarBase() throws Exception {
+        Database.initialize();
+        try (Connection conn = Database.connect(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM employees WHERE nss LIKE 'CACHENSS_%'");
+        }
+    }
+
+    @Test
+    @Order(1)
+    void testAltaSeReflejaEnElEspejo() {
+        int antes = cache.countEmployees();
+        empleado = new Employee(0, "Sofía", "Cano", "Ruiz",
+            LocalDate.of(2020, 3, 1), LocalDate.of(1991, 2, 2),
+            "CACHENSS_01", "CACHECURP_01", "RH", 21000);
+        assertTrue(cache.addEmployee(empleado));
+
+        assertEquals(antes + 1, cache.countEmployees());
+        assertTrue(cache.nssExists("CACHENSS_01"));
+        assertEquals("Sofía", cache.getEmployeeById(empleado.getId()).getFirstName());
+    }
+
+    @Test
+    @Order(2)
+    void testDevuelveCopias() {
+        Employee copia = cache.getEmployeeById(empleado.getId());
+        copia.setMonthlySalary(99999);
+        assertEquals(21000, cache.getEmployeeById(empleado.getId()).getMonthlySalary(), 0.001);
+    }
+
+    @Test
+    @Order(3)
+    void testDetectaEscriturasDeOtrasConexiones() throws Exception {
+        try (Connection conn = Database.connect();
+             PreparedStatement pstmt = conn.prepareStatement("UPDATE employees SET department = ? WHERE id = ?")) {
+            pstmt.setString(1, "TI");
+            pstmt.setInt(2, empleado.getId());
+            pstmt.executeUpdate();
+        }
+        assertEquals("TI", cache.getEmployeeById(empleado.getId()).getDepartment());
+    }
+
+    @Test
+    @Order(4)
+    void testBajaSeReflejaEnElEspejo() {
+        assertTrue(cache.deleteEmployee(empleado.getId()));
+        assertNull(cache.getEmployeeById(empleado.getId()));
+        assertFalse(cache.curpExists("CACHECURP_01"));
+    }
+
+    @Test
+    @Order(5)
+    void testEscrituraAjenaJuntoAEscrituraPropiaNoSePierde() throws Exception {
+        Employee propio = new Employee(0, "Iván", "Cano", "Ruiz",
+            LocalDate.of(2020, 3, 1), LocalDate.of(1991, 2, 2),
+            "CACHENSS_02", "CACHECURP_02", "RH", 21000);
+        assertTrue(cache.addEmployee(propio));
+        cache.countEmployees();
+
+        // Otra conexión escribe justo antes de la escritura propia, sin lecturas en medio
+        try (Connection conn = Database.connect();
+             PreparedStatement pstmt = conn.prepareStatement("UPDATE employees SET department = ? WHERE id = ?")) {
+            pstmt.setString(1, "Ventas");
+            pstmt.setInt(2, propio.getId());
+            pstmt.executeUpdate();
+        }
+        Employee otro = new Employee(0, "Eva", "Cano", "Ruiz",
+            LocalDate.of(2020, 3, 1), LocalDate.of(1991, 2, 2),
+            "CACHENSS_03", "CACHECURP_03", "RH", 21000);
+        assertTrue(cache.addEmployee(otro));
+
+        assertEquals("Ventas", cache.getEmployeeById(propio.getId()).getDepartment());
+        assertTrue(cache.nssExists("CACHENSS_03"));
+    }
+
+    @Test
+    @Order(6)
+    void testEscriturasAsincronasNoRecarganElEspejo() throws Exception {
+        cache.countEmployees();
+        long recargas = cache.getReloadCount();
+
+        Employee nuevo = new Employee(0, "Luz", "Cano", "Ruiz",
+            LocalDate.of(2020, 3, 1), LocalDate.of(1991, 2, 2),
+            "CACHENSS_04", "CACHECURP_04", "RH", 21000);
+        int id = cache.addEmployeeAsync(nuevo).get(10, TimeUnit.SECONDS);
+        assertTrue(cache.nssExists("CACHENSS_04"));
+
+        nuevo.setDepartment("Legal");
+        assertTrue(cache.updateEmployeeAsync(nuevo).get(10, TimeUnit.SECONDS));
+        assertEquals("Legal", cache.getEmployeeById(id).getDepartment());
+        // Las dos escrituras se reflejaron sin recargar el espejo completo
+        assertEquals(recargas, cache.getReloadCount());
+    }
+
+    @Test
+    @Order(7)
+    void testLecturasDuranteRecargaVenElEspejoCompleto() throws Exception {
+        Employee fijo = new Employee(0, "Ana", "Cano", "Ruiz",
+            LocalDate.of(2020, 3, 1), LocalDate.of(1991, 2, 2),
+            "CACHENSS_05", "CACHECURP_05", "RH", 21000);
+        assertTrue(cache.addEmployee(fijo));
+        int total = cache.countEmployees();
+
+        // Un hilo fuerza recargas completas mientras otro consulta
+        Thread recargas = new Thread(() -> {
+            for (int i = 0; i < 200; i++) {
+                cache.invalidate();
+                cache.countEmployees();
+            }
+        });
+        recargas.start();
+        int perdidos = 0;
+        while (recargas.isAlive()) {
+            if (!cache.nssExists("CACHENSS_05") || cache.getEmployeeById(fijo.getId()) == null
+                    || cache.countEmployees() != total) {
+                perdidos++;
+            }
+        }
+        recargas.join();
+        assertEquals(0, perdidos);
+    }
+}
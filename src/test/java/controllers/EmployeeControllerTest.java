@@ -1,13 +1,23 @@
 package controllers;
 
 import models.Employee;
+import models.EmployeeChangeSet;
+import models.EmployeeDirectoryEntry;
+import models.EmployeeSummary;
 import models.Database;
+import models.SqliteEmployeeRepository;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.Statement;
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -26,6 +36,7 @@ public class EmployeeControllerTest {
 
     @BeforeAll
     void limpiarBase() throws Exception {
+        Database.initialize();
         try (Connection conn = Database.connect(); Statement stmt = conn.createStatement()) {
             stmt.executeUpdate("DELETE FROM employees WHERE nss LIKE 'TESTNSS_%' OR curp LIKE 'TESTCURP_%'");
         }
@@ -120,4 +131,186 @@ public class EmployeeControllerTest {
             "TESTNSS_003", "TESTCURP_UNICO_001", "Legal", 32000);
         assertThrows(IllegalArgumentException.class, () -> controller.addEmployee(duplicado));
     }
+
+    @Test
+    @Order(11)
+    void testPlanesDeConsultaUsanIndices() {
+        assertTrue(SqliteEmployeeRepository.getQueries().containsKey("SELECT_NEXT_PAGE_SQL"));
+        assertTrue(EmployeeController.verifyQueryPlans().isEmpty());
+    }
+
+    @Test
+    @Order(12)
+    void testPaginacionRecorreTodosLosEmpleados() {
+        Set<Integer> ids = new HashSet<>();
+        Employee ultimo = null;
+        List<Employee> pagina;
+        do {
+            pagina = controller.getEmployeesPageAfter(ultimo, 2);
+            assertTrue(pagina.size() <= 2);
+            for (Employee e : pagina) {
+                assertTrue(ids.add(e.getId()), "La paginación repitió un empleado");
+            }
+            if (!pagina.isEmpty()) {
+                ultimo = pagina.get(pagina.size() - 1);
+            }
+        } while (!pagina.isEmpty());
+
+        assertEquals(controller.countEmployees(), ids.size());
+    }
+
+    @Test
+    @Order(13)
+    void testStreamDeEmpleadosLiberaLaConexion() {
+        int activasAntes = Database.getPoolStats().getActive();
+        long recorridos;
+        try (Stream<Employee> empleados = controller.streamEmployees(1)) {
+            recorridos = empleados.count();
+            assertEquals(activasAntes + 1, Database.getPoolStats().getActive());
+        }
+        assertEquals(controller.countEmployees(), recorridos);
+        assertEquals(activasAntes, Database.getPoolStats().getActive());
+    }
+
+    @Test
+    @Order(14)
+    void testDuplicadosReportanElCampoEnConflicto() {
+        Employee duplicadoNss = new Employee(0, "Carlos", "Vega", "Martínez",
+            LocalDate.of(2023, 5, 1), LocalDate.of(1993, 6, 8),
+            "TESTNSS_002", "TESTCURP_UNICO_003", "TI", 26000);
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+            () -> controller.addEmployee(duplicadoNss));
+        assertEquals("El NSS ya está registrado", ex.getMessage());
+
+        Employee otro = new Employee(0, "Mario", "Hernández", "Nava",
+            LocalDate.of(2024, 1, 1), LocalDate.of(1988, 6, 21),
+            "TESTNSS_004", "TESTCURP_UNICO_004", "Legal", 32000);
+        assertTrue(controller.addEmployee(otro));
+
+        Employee conCurpDuplicada = new Employee(otro.getId(), "Mario", "Hernández", "Nava",
+            LocalDate.of(2024, 1, 1), LocalDate.of(1988, 6, 21),
+            "TESTNSS_004", "TESTCURP_UNICO_001", "Legal", 32000);
+        ex = assertThrows(IllegalArgumentException.class,
+            () -> controller.updateEmployee(conCurpDuplicada));
+        assertEquals("La CURP ya está registrada", ex.getMessage());
+    }
+
+    @Test
+    @Order(15)
+    void testProyeccionesCoincidenConEmpleadosCompletos() {
+        List<Employee> completos = controller.getAllEmployees();
+        List<EmployeeSummary> resumenes = controller.getEmployeeSummaries();
+        List<EmployeeDirectoryEntry> directorio = controller.getDirectoryEntries();
+
+        assertEquals(completos.size(), resumenes.size());
+        assertEquals(completos.size(), directorio.size());
+
+        Employee luis = completos.stream()
+            .filter(e -> "TESTNSS_002".equals(e.getNss())).findFirst().orElseThrow();
+        EmployeeSummary resumen = resumenes.stream()
+            .filter(r -> r.getId() == luis.getId()).findFirst().orElseThrow();
+        assertEquals(luis.getFullName(), resumen.getFullName());
+        assertEquals(luis.getLastName(), resumen.getLastName());
+        assertEquals(luis.getFirstName(), resumen.getFirstName());
+        assertEquals(luis.getHireDate(), resumen.getHireDate());
+        // AdminView inserta las filas nuevas con NAME_ORDER: debe coincidir con el orden de la consulta
+        for (int i = 1; i < resumenes.size(); i++) {
+            EmployeeSummary anterior = resumenes.get(i - 1);
+            EmployeeSummary actual = resumenes.get(i);
+            if (anterior.getLastName().equals(actual.getLastName()) && anterior.getFirstName().equals(actual.getFirstName())) {
+                continue;
+            }
+            assertTrue(EmployeeSummary.NAME_ORDER.compare(anterior, actual) < 0);
+        }
+        assertEquals(luis.getMonthlySalary(), resumen.getMonthlySalary(), 0.001);
+        assertTrue(directorio.stream().anyMatch(d -> luis.getFullName().equals(d.getFullName())
+            && luis.getDepartment().equals(d.getDepartment())));
+    }
+
+    @Test
+    @Order(16)
+    void testBusquedaDeTextoSinAcentosYPorPrefijo() {
+        Employee mario = controller.getAllEmployees().stream()
+            .filter(e -> "TESTNSS_004".equals(e.getNss())).findFirst().orElseThrow();
+
+        assertTrue(controller.searchEmployeeIds("hernandez", 50).contains(mario.getId()));
+        assertEquals(List.of(mario.getId()), controller.searchEmployeeIds("herná nav legal", 50));
+        assertEquals(mario.getId(), controller.searchEmployees("TESTNSS_004", 5).get(0).getId());
+
+        // Los triggers mantienen el índice al actualizar
+        mario.setLastName("Quiñones");
+        assertTrue(controller.updateEmployee(mario));
+        assertTrue(controller.searchEmployeeIds("quinon", 50).contains(mario.getId()));
+        assertFalse(controller.searchEmployeeIds("hernandez nava", 50).contains(mario.getId()));
+
+        assertTrue(controller.searchEmployeeIds("  \"*- ", 50).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> controller.searchEmployeeIds("ana", 0));
+    }
+
+    @Test
+    @Order(17)
+    void testBitacoraDevuelveSoloLosCambios() {
+        long inicio = controller.getLatestChangeSequence();
+        assertTrue(controller.getChangesSince(inicio).isEmpty());
+
+        Employee nuevo = new Employee(0, "Rosa", "Díaz", "Gil",
+            LocalDate.of(2023, 5, 10), LocalDate.of(1995, 12, 1),
+            "TESTNSS_005", "TESTCURP_UNICO_005", "Glosa", 18000);
+        assertTrue(controller.addEmployee(nuevo));
+        nuevo.setMonthlySalary(19000);
+        assertTrue(controller.updateEmployee(nuevo));
+        Employee luis = controller.getAllEmployees().stream()
+            .filter(e -> "TESTNSS_002".equals(e.getNss())).findFirst().orElseThrow();
+        assertTrue(controller.deleteEmployee(luis.getId()));
+
+        EmployeeChangeSet cambios = controller.getChangesSince(inicio);
+        assertFalse(cambios.isFullReloadRequired());
+        assertEquals(inicio + 3, cambios.getLatestSequence());
+        assertEquals(1, cambios.getUpserted().size());
+        assertEquals(19000, cambios.getUpserted().get(0).getMonthlySalary(), 0.001);
+        assertEquals(List.of(luis.getId()), cambios.getDeletedIds());
+
+        assertTrue(controller.getChangesSince(cambios.getLatestSequence()).isEmpty());
+        assertTrue(controller.getChangesSince(cambios.getLatestSequence() + 100).isFullReloadRequired());
+    }
+
+    @Test
+    @Order(18)
+    void testControladorDeSoloLecturaNoEscribe() throws Exception {
+        EmployeeController lectura = EmployeeController.createReadOnly();
+        assertEquals(controller.getDirectoryEntries().size(), lectura.getDirectoryEntries().size());
+        assertTrue(lectura.nssExists("TESTNSS_005"));
+
+        Employee intento = new Employee(0, "Sin", "Permiso", "Alguno",
+            LocalDate.of(2023, 5, 10), LocalDate.of(1995, 12, 1),
+            "TESTNSS_006", "TESTCURP_UNICO_006", "Glosa", 18000);
+        assertThrows(UnsupportedOperationException.class, () -> lectura.addEmployee(intento));
+        assertTrue(lectura.addEmployeeAsync(intento).isCompletedExceptionally());
+        assertFalse(controller.nssExists("TESTNSS_006"));
+
+        // La conexión rechaza escrituras aunque se intenten con SQL directo
+        try (Connection conn = Database.connectReadOnly(); Statement stmt = conn.createStatement()) {
+            assertThrows(java.sql.SQLException.class,
+                () -> stmt.executeUpdate("DELETE FROM employees WHERE nss = 'TESTNSS_005'"));
+        }
+        assertTrue(controller.nssExists("TESTNSS_005"));
+        assertEquals(0, Database.getReadPoolStats().getActive());
+    }
+
+    @Test
+    @Order(19)
+    void testExportarConUnaSolaConexionEnElPool(@TempDir Path tempDir) throws Exception {
+        int maximoAnterior = Database.getPoolStats().getMaxSize();
+        // El conteo no debe pedir una segunda conexión mientras el cursor está abierto
+        Database.configurePool(1, 60_000);
+        try {
+            Path csv = tempDir.resolve("empleados.csv");
+            EmployeeExporter.ExportResult resultado = controller.exportEmployees(csv,
+                EmployeeExporter.Format.CSV, false, null);
+            assertEquals(controller.countEmployees(), resultado.getRows());
+            assertTrue(Files.size(csv) > 0);
+        } finally {
+            Database.configurePool(maximoAnterior, 5 * 60 * 1000L);
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package controllers;
+
+import models.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Nelo Angelo
+ */
+public class EmployeeExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<Employee> empleados() {
+        return List.of(
+            new Employee(1, "Luis, Jr.", "Pérez", null, LocalDate.of(2015, 2, 1),
+                LocalDate.of(1985, 10, 10), "99900000002", "PESL851010HDFRNS02", "RH", 28500),
+            new Employee(2, "Ana \"Anita\"", "Ramírez", "Lozano", LocalDate.of(2020, 1, 15),
+                LocalDate.of(1990, 4, 15), "99900000001", "RALA900415MDFMZN01", "TI", 25000)
+        );
+    }
+
+    @Test
+    void testCsvSePuedeVolverAImportar() throws Exception {
+        Path csv = tempDir.resolve("empleados.csv");
+        List<int[]> avance = new ArrayList<>();
+
+        EmployeeExporter.ExportResult result = new EmployeeExporter(EmployeeExporter.Format.CSV, false)
+            .export(empleados().stream(), 2, csv, (exportados, total) -> avance.add(new int[]{exportados, total}));
+
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertEquals(2, result.getRows());
+        assertEquals(Files.size(csv), result.getBytes());
+        assertArrayEquals(new int[]{2, 2}, avance.get(avance.size() - 1));
+
+        Employee luis = EmployeeImporter.parseRow(lines.get(1));
+        assertEquals("Luis, Jr.", luis.getFirstName());
+        assertEquals(LocalDate.of(2015, 2, 1), luis.getHireDate());
+        assertEquals(28500, luis.getMonthlySalary(), 0.001);
+        assertEquals("Ana \"Anita\"", EmployeeImporter.parseRow(lines.get(2)).getFirstName());
+    }
+
+    @Test
+    void testJsonLinesIncluyeVacaciones() throws Exception {
+        Path jsonl = tempDir.resolve("empleados.jsonl");
+        Employee luis = empleados().get(0);
+        int dias = VacationCalculator.calculateVacationDays(luis.getHireDate());
+
+        new EmployeeExporter(EmployeeExporter.Format.JSON_LINES, true)
+            .export(Stream.of(luis), 1, jsonl, null);
+
+        String line = Files.readAllLines(jsonl, StandardCharsets.UTF_8).get(0);
+        assertTrue(line.startsWith("{\"id\":1,\"nombre\":\"Luis, Jr.\""));
+        assertTrue(line.contains("\"apellido_materno\":null"));
+        assertTrue(line.contains("\"salario\":28500.00"));
+        assertTrue(line.contains("\"vacaciones\":{\"dias\":" + dias + ","));
+        assertEquals("\"Ana \\\"Anita\\\"\"", EmployeeExporter.jsonString("Ana \"Anita\""));
+    }
+}
@@ -0,0 +1,136 @@
+package controllers;
+
+import models.Database;
+import models.RetryPolicy;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Nelo Angelo
+ */
+public class EmployeeImporterTest {
+
+    private final EmployeeController controller = new EmployeeController();
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    @AfterEach
+    void limpiarBase() throws Exception {
+        try (Connection conn = Database.connect(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM employees WHERE nss LIKE '999000%'");
+        }
+    }
+
+    @Test
+    void testImportaFilasValidasYReportaErrores() throws Exception {
+        Path csv = tempDir.resolve("empleados.csv");
+        Files.write(csv, List.of(
+            "nombre,apellido_paterno,apellido_materno,fecha_ingreso,fecha_nacimiento,nss,curp,departamento,salario",
+            "Ana,Ramírez,Lozano,2020-01-15,1990-04-15,99900000001,RALA900415MDFMZN01,TI,25000",
+            "\"Luis, Jr.\",Pérez,,01/02/2019,10/10/1985,99900000002,PESL851010HDFRNS02,RH,\"28,500\"",
+            "Mario,Nava,Soto,2021-06-01,1988-06-21,123,NASM880621HDFVTR03,Legal,30000",
+            "Eva,Luna,Mora,2022-03-01,1992-07-07,99900000001,LUME920707MDFNRV04,TI,22000",
+            "",
+            "Rosa,Díaz,Gil,2023-05-10,1995-12-01,99900000003,DIGR951201MDFZLS05,Glosa,18000"
+        ), StandardCharsets.UTF_8);
+
+        EmployeeImporter.ImportResult result = controller.importEmployees(csv);
+
+        assertEquals(5, result.getTotalRows());
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getRejected());
+        assertEquals(4, result.getErrors().get(0).getLineNumber());
+        assertEquals(5, result.getErrors().get(1).getLineNumber());
+        assertEquals("El NSS ya está registrado", result.getErrors().get(1).getMessage());
+
+        assertTrue(controller.nssExists("99900000002"));
+        assertTrue(controller.getAllEmployees().stream()
+            .anyMatch(e -> "Luis, Jr.".equals(e.getFirstName()) && e.getMonthlySalary() == 28500));
+    }
+
+    @Test
+    void testNoImportaDuplicadosDeLaBase() throws Exception {
+        Path csv = tempDir.resolve("duplicados.csv");
+        String fila = "Ana,Ramírez,Lozano,2020-01-15,1990-04-15,99900000011,RALA900415MDFMZN11,TI,25000";
+        Files.write(csv, List.of("encabezado", fila), StandardCharsets.UTF_8);
+
+        assertEquals(1, controller.importEmployees(csv).getImported());
+
+        EmployeeImporter.ImportResult segunda = controller.importEmployees(csv);
+        assertEquals(0, segunda.getImported());
+        assertEquals(1, segunda.getRejected());
+    }
+
+    @Test
+    void testReintentaElLoteSiOtraConexionTieneElBloqueo() throws Exception {
+        Path csv = tempDir.resolve("bloqueo.csv");
+        Files.write(csv, List.of("encabezado",
+            "Ana,Ramírez,Lozano,2020-01-15,1990-04-15,99900000021,RALA900415MDFMZN21,TI,25000",
+            "Luis,Pérez,Soto,2019-02-01,1985-10-10,99900000022,PESL851010HDFRNS22,RH,28000"
+        ), StandardCharsets.UTF_8);
+
+        // Otra conexión retiene la escritura mientras empieza la importación:
+        // el bloqueo se reintenta en lugar de reportarse como error de las filas
+        RetryPolicy anterior = Database.getRetryPolicy();
+        Database.setRetryPolicy(new RetryPolicy(100, 10, 20));
+        try (Connection otra = Database.connect()) {
+            otra.setAutoCommit(false);
+            try (Statement stmt = otra.createStatement()) {
+                stmt.executeUpdate("INSERT INTO settings (key, value) VALUES ('prueba_bloqueo', '1') " +
+                    "ON CONFLICT(key) DO UPDATE SET value = excluded.value");
+            }
+            CompletableFuture<EmployeeImporter.ImportResult> importacion =
+                CompletableFuture.supplyAsync(() -> controller.importEmployees(csv));
+            Thread.sleep(150);
+            otra.rollback();
+            otra.setAutoCommit(true);
+
+            EmployeeImporter.ImportResult result = importacion.get(30, TimeUnit.SECONDS);
+            assertEquals(2, result.getImported());
+            assertTrue(result.getErrors().isEmpty());
+        } finally {
+            Database.setRetryPolicy(anterior);
+        }
+    }
+
+    @Test
+    void testDuplicadoAlInsertarUsaElMensajeDelFormulario() throws Exception {
+        Path csv = tempDir.resolve("carrera.csv");
+        Files.write(csv, List.of("encabezado",
+            "Ana,Ramírez,Lozano,2020-01-15,1990-04-15,99900000031,RALA900415MDFMZN31,TI,25000",
+            "Luis,Pérez,Soto,2019-02-01,1985-10-10,99900000032,PESL851010HDFRNS32,RH,28000"
+        ), StandardCharsets.UTF_8);
+
+        // Simula otra conexión que registra el NSS después de cargar las claves existentes
+        try (Connection conn = Database.connect(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TRIGGER prueba_nss_duplicado BEFORE INSERT ON employees " +
+                "WHEN NEW.nss = '99900000032' " +
+                "BEGIN SELECT RAISE(ABORT, 'UNIQUE constraint failed: employees.nss'); END");
+        }
+        try {
+            EmployeeImporter.ImportResult result = controller.importEmployees(csv);
+            assertEquals(1, result.getImported());
+            assertEquals(1, result.getErrors().size());
+            assertEquals(3, result.getErrors().get(0).getLineNumber());
+            assertEquals("El NSS ya está registrado", result.getErrors().get(0).getMessage());
+        } finally {
+            try (Connection conn = Database.connect(); Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP TRIGGER IF EXISTS prueba_nss_duplicado");
+            }
+        }
+    }
+}
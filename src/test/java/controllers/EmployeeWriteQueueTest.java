@@ -0,0 +1,147 @@
+package controllers;
+
+import models.Database;
+import models.Employee;
+import models.RetryPolicy;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Nelo Angelo
+ */
+public class EmployeeWriteQueueTest {
+
+    private final EmployeeController controller = new EmployeeController();
+    private EmployeeWriteQueue queue;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        limpiarBase();
+        queue = new EmployeeWriteQueue(256, 32, 10);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        queue.close();
+        limpiarBase();
+    }
+
+    private void limpiarBase() throws Exception {
+        try (Connection conn = Database.connect(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM employees WHERE nss LIKE '998000%'");
+        }
+    }
+
+    private Employee empleado(int n, String nss) {
+        return new Employee("Prueba" + n, "Cola", null,
+            LocalDate.of(2021, 1, 4), LocalDate.of(1990, 5, 5),
+            nss, String.format("COLA%014d", n), "TI", 15000);
+    }
+
+    @Test
+    void testAltasConcurrentesDevuelvenIdsDistintos() throws Exception {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(queue.submitAdd(empleado(i, String.format("998000%05d", i))));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+        Set<Integer> ids = new HashSet<>();
+        for (CompletableFuture<Integer> future : futures) {
+            ids.add(future.get());
+        }
+        assertEquals(100, ids.size());
+        assertTrue(controller.nssExists("99800000099"));
+    }
+
+    @Test
+    void testDuplicadoSoloFallaSuPropiaOperacion() throws Exception {
+        CompletableFuture<Integer> primero = queue.submitAdd(empleado(1, "99800000001"));
+        CompletableFuture<Integer> duplicado = queue.submitAdd(empleado(2, "99800000001"));
+        CompletableFuture<Integer> tercero = queue.submitAdd(empleado(3, "99800000003"));
+
+        assertTrue(primero.get(10, TimeUnit.SECONDS) > 0);
+        assertTrue(tercero.get(10, TimeUnit.SECONDS) > 0);
+        ExecutionException error = assertThrows(ExecutionException.class, () -> duplicado.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        assertEquals("El NSS ya está registrado", error.getCause().getMessage());
+    }
+
+    @Test
+    void testCerrarConfirmaLasPendientes() throws Exception {
+        Employee emp = empleado(7, "99800000007");
+        CompletableFuture<Integer> alta = queue.submitAdd(emp);
+        queue.close();
+
+        assertTrue(alta.isDone());
+        assertEquals(emp.getId(), alta.get());
+        assertTrue(queue.submitAdd(empleado(8, "99800000008")).isCompletedExceptionally());
+    }
+
+    @Test
+    void testErrorInesperadoNoDetieneAlEscritor() throws Exception {
+        // Una excepción no SQL dentro de la mutación
+        Employee invalido = new Employee("Prueba10", "Cola", null,
+            LocalDate.of(2021, 1, 4), LocalDate.of(1990, 5, 5),
+            "99800000010", String.format("COLA%014d", 10), "TI", 15000) {
+            @Override
+            public LocalDate getHireDate() {
+                throw new IllegalStateException("Fallo simulado");
+            }
+        };
+        CompletableFuture<Integer> fallido = queue.submitAdd(invalido);
+        Employee valido = empleado(11, "99800000011");
+        CompletableFuture<Integer> siguiente = queue.submitAdd(valido);
+
+        assertThrows(ExecutionException.class, () -> fallido.get(10, TimeUnit.SECONDS));
+        assertEquals(0, invalido.getId());
+        // El escritor sigue vivo y el id se asigna al confirmar
+        int id = siguiente.get(10, TimeUnit.SECONDS);
+        assertEquals(id, valido.getId());
+        assertTrue(queue.submitAdd(empleado(12, "99800000012")).get(10, TimeUnit.SECONDS) > 0);
+    }
+
+    @Test
+    void testCerrarDuranteUnCommitNoFallaLasPendientes() throws Exception {
+        RetryPolicy anterior = Database.getRetryPolicy();
+        Database.setRetryPolicy(new RetryPolicy(100, 10, 20));
+        try (Connection otra = Database.connect()) {
+            // Otra conexión retiene la escritura: el grupo queda reintentando su commit
+            otra.setAutoCommit(false);
+            try (Statement stmt = otra.createStatement()) {
+                stmt.executeUpdate("INSERT INTO settings (key, value) VALUES ('prueba_cola', '1') " +
+                    "ON CONFLICT(key) DO UPDATE SET value = excluded.value");
+            }
+            List<CompletableFuture<Integer>> altas = new ArrayList<>();
+            for (int i = 20; i < 30; i++) {
+                altas.add(queue.submitAdd(empleado(i, String.format("998000%05d", i))));
+            }
+            Thread.sleep(100);
+            CompletableFuture<Void> cierre = CompletableFuture.runAsync(queue::close);
+            Thread.sleep(100);
+            otra.rollback();
+            otra.setAutoCommit(true);
+
+            cierre.get(30, TimeUnit.SECONDS);
+            for (CompletableFuture<Integer> alta : altas) {
+                assertTrue(alta.get(0, TimeUnit.SECONDS) > 0);
+            }
+            assertTrue(controller.nssExists("99800000029"));
+        } finally {
+            Database.setRetryPolicy(anterior);
+        }
+    }
+}
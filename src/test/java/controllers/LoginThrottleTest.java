@@ -0,0 +1,69 @@
+package controllers;
+
+import models.InMemoryUserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Nelo Angelo
+ */
+public class LoginThrottleTest {
+
+    private final AtomicLong reloj = new AtomicLong(1_000_000);
+
+    // 2 fallos libres y bloqueo al 5.º por usuario; el origen casi no limita
+    private LoginThrottle nuevoLimite() {
+        return new LoginThrottle(2, 5, 100, 1_000, 100, 400, 60_000, 15 * 60_000, reloj::get);
+    }
+
+    @Test
+    void testEsperaExponencialYBloqueo() {
+        LoginThrottle throttle = nuevoLimite();
+        throttle.recordFailure("Ana", "equipo1");
+        throttle.recordFailure("ana", "equipo1");
+        assertEquals(0, throttle.checkAllowed("ana", "equipo1"));
+
+        throttle.recordFailure("ana", "equipo1");
+        assertEquals(100, throttle.checkAllowed("ana", "equipo1"));
+        reloj.addAndGet(100);
+        throttle.recordFailure("ana", "equipo1");
+        assertEquals(200, throttle.checkAllowed("ana", "equipo1"));
+
+        // Quinto fallo: bloqueo completo
+        throttle.recordFailure("ana", "equipo1");
+        assertEquals(60_000, throttle.checkAllowed("ana", "equipo1"));
+        assertEquals(0, throttle.checkAllowed("beto", "equipo1"));
+
+        reloj.addAndGet(60_000);
+        throttle.recordSuccess("ana");
+        assertEquals(0, throttle.checkAllowed("ana", "equipo1"));
+
+        LoginThrottle.Stats stats = throttle.getStats();
+        assertEquals(3, stats.getRejected());
+        assertEquals(5, stats.getFailures());
+        assertEquals(1, stats.getLockouts());
+    }
+
+    @Test
+    void testIntentosRechazadosAntesDeVerificar() {
+        LoginThrottle throttle = nuevoLimite();
+        AuthController auth = new AuthController(new InMemoryUserRepository(), throttle);
+        long intentosPrevios = AuthController.getLoginStats().getAttempts();
+
+        for (int i = 0; i < 3; i++) {
+            assertNull(auth.authenticate("admin", "incorrecta", "equipo1"));
+        }
+        assertThrows(IllegalStateException.class, () -> auth.authenticate("admin", "Admin", "equipo1"));
+        // El intento rechazado no llegó a BCrypt
+        assertEquals(intentosPrevios + 3, AuthController.getLoginStats().getAttempts());
+        assertEquals(1, auth.getThrottleStats().getRejected());
+
+        // Los fallos viejos salen de la ventana y se puede volver a intentar
+        reloj.addAndGet(16 * 60_000);
+        assertNotNull(auth.authenticate("admin", "Admin", "equipo1"));
+    }
+}
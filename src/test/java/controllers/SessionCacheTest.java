@@ -0,0 +1,47 @@
+package controllers;
+
+import models.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Nelo Angelo
+ */
+public class SessionCacheTest {
+
+    @Test
+    void testExpiracionYUsuarioSinContrasena() {
+        AtomicLong reloj = new AtomicLong(1_000);
+        SessionCache cache = new SessionCache(10, 500, reloj::get);
+        assertEquals(1_500, cache.put("a", new User(1, "ana", "$2a$10$hash", true)));
+
+        User user = cache.get("a");
+        assertEquals("ana", user.getUsername());
+        assertTrue(user.isAdmin());
+        assertEquals("", user.getPassword());
+
+        reloj.set(1_500);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testLimiteYSesionesPorUsuario() {
+        SessionCache cache = new SessionCache(2, 60_000);
+        cache.put("a", new User(1, "ana", "", false));
+        cache.put("b", new User(2, "beto", "", false));
+        cache.get("a");
+        // Se descarta la usada hace más tiempo ("b")
+        cache.put("c", new User(1, "ana", "", false));
+        assertNull(cache.get("b"));
+        assertEquals(2, cache.size());
+
+        cache.removeUser(1);
+        assertEquals(0, cache.size());
+        assertThrows(IllegalArgumentException.class, () -> new SessionCache(0, 1));
+    }
+}
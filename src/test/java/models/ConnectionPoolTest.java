@@ -0,0 +1,108 @@
+package models;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Nelo Angelo
+ */
+public class ConnectionPoolTest {
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void crearPool() {
+        pool = new ConnectionPool(() -> DriverManager.getConnection("jdbc:sqlite::memory:"), 2, 60_000, 200);
+    }
+
+    @AfterEach
+    void cerrarPool() {
+        pool.close();
+    }
+
+    @Test
+    void testReutilizaConexionDevuelta() throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            assertFalse(conn.isClosed());
+        }
+        try (Connection conn = pool.getConnection()) {
+            assertFalse(conn.isClosed());
+        }
+
+        ConnectionPool.Stats stats = pool.getStats();
+        assertEquals(1, stats.getCreated());
+        assertEquals(1, stats.getReused());
+        assertEquals(0, stats.getActive());
+        assertEquals(1, stats.getIdle());
+    }
+
+    @Test
+    void testRespetaTamanoMaximo() throws SQLException {
+        try (Connection primera = pool.getConnection();
+             Connection segunda = pool.getConnection()) {
+            assertEquals(2, pool.getStats().getActive());
+            assertThrows(SQLException.class, () -> pool.getConnection());
+        }
+        assertEquals(1, pool.getStats().getTimeouts());
+    }
+
+    @Test
+    void testConexionCerradaNoPuedeUsarse() throws SQLException {
+        Connection conn = pool.getConnection();
+        conn.close();
+        assertTrue(conn.isClosed());
+        assertThrows(SQLException.class, conn::createStatement);
+    }
+
+    @Test
+    void testRestableceAutoCommitAlDevolver() throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            conn.setAutoCommit(false);
+        }
+        try (Connection conn = pool.getConnection()) {
+            assertTrue(conn.getAutoCommit());
+        }
+    }
+
+    @Test
+    void testDevolverMientrasSeCierraNoDejaConexionesAbiertas() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            List<Connection> fisicas = new CopyOnWriteArrayList<>();
+            ConnectionPool carrera = new ConnectionPool(() -> {
+                Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+                fisicas.add(conn);
+                return conn;
+            }, 2, 60_000, 200);
+            Connection prestada = carrera.getConnection();
+
+            CountDownLatch salida = new CountDownLatch(1);
+            Thread devolver = new Thread(() -> {
+                try {
+                    salida.await();
+                    prestada.close();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            devolver.start();
+            salida.countDown();
+            carrera.close();
+            devolver.join();
+
+            for (Connection fisica : fisicas) {
+                assertTrue(fisica.isClosed());
+            }
+        }
+    }
+}
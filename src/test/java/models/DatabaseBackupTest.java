@@ -0,0 +1,75 @@
+package models;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Nelo Angelo
+ */
+public class DatabaseBackupTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRespaldoComprimidoVerificableYRestaurable() throws Exception {
+        Path origen = tempDir.resolve("origen.db");
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + origen);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE datos (id INTEGER PRIMARY KEY, texto TEXT)");
+            stmt.execute("WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < 5000) " +
+                "INSERT INTO datos (texto) SELECT printf('fila %d', i) FROM n");
+
+            // Pasos pequeños para recorrer la copia incremental
+            DatabaseBackup backup = new DatabaseBackup(tempDir.resolve("respaldos"), 7, 8, 0);
+            DatabaseBackup.BackupResult result = backup.backup(conn);
+
+            assertTrue(Files.exists(result.getFile()));
+            assertTrue(result.getSteps() > 1);
+            assertTrue(result.getCompressedBytes() < result.getDatabaseBytes());
+            assertEquals(64, result.getSha256().length());
+            assertTrue(DatabaseBackup.verify(result.getFile()));
+
+            Path restaurada = tempDir.resolve("restaurada.db");
+            DatabaseBackup.restoreTo(result.getFile(), restaurada);
+            try (Connection copia = DriverManager.getConnection("jdbc:sqlite:" + restaurada);
+                 Statement consulta = copia.createStatement();
+                 ResultSet rs = consulta.executeQuery("SELECT COUNT(*) FROM datos")) {
+                assertEquals(5000, rs.getInt(1));
+            }
+        }
+    }
+
+    @Test
+    void testRetencionEliminaLosMasAntiguos() throws Exception {
+        Path origen = tempDir.resolve("origen.db");
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + origen);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE datos (id INTEGER PRIMARY KEY)");
+
+            DatabaseBackup backup = new DatabaseBackup(tempDir.resolve("respaldos"), 2, 100, 0);
+            Path primero = backup.backup(conn).getFile();
+            Thread.sleep(5);
+            backup.backup(conn);
+            Thread.sleep(5);
+            DatabaseBackup.BackupResult ultimo = backup.backup(conn);
+
+            List<Path> restantes = backup.listBackups();
+            assertEquals(2, restantes.size());
+            assertEquals(1, ultimo.getDeletedBackups());
+            assertFalse(Files.exists(primero));
+            assertFalse(Files.exists(primero.resolveSibling(primero.getFileName() + ".sha256")));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package models;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Nelo Angelo
+ */
+public class DatabaseMigrationTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMigraFechasDeTextoADiasConservandoIds() throws Exception {
+        // Base con el esquema original (user_version 0, fechas como texto ISO)
+        Path archivo = tempDir.resolve("antigua.db");
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + archivo);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE users (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "username TEXT UNIQUE NOT NULL," +
+                "password TEXT NOT NULL," +
+                "is_admin BOOLEAN NOT NULL DEFAULT FALSE)");
+            stmt.execute("CREATE TABLE employees (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "first_name TEXT NOT NULL," +
+                "last_name TEXT NOT NULL," +
+                "mothers_last_name TEXT," +
+                "hire_date TEXT NOT NULL," +
+                "birth_date TEXT NOT NULL," +
+                "nss TEXT UNIQUE NOT NULL," +
+                "curp TEXT UNIQUE NOT NULL," +
+                "department TEXT NOT NULL," +
+                "monthly_salary REAL)");
+            stmt.execute("INSERT INTO employees (first_name, last_name, hire_date, birth_date, nss, curp, department, monthly_salary) " +
+                "VALUES ('Ana', 'Ramírez', '2015-03-01', '1985-06-15', '11100000001', 'RALA850615MDFMZN01', 'TI', 15000)");
+            stmt.execute("INSERT INTO employees (first_name, last_name, hire_date, birth_date, nss, curp, department, monthly_salary) " +
+                "VALUES ('Luis', 'Pérez', '1969-12-31', '1960-02-29', '11100000002', 'PESL600229HDFRNS02', 'RH', 18000)");
+            stmt.execute("INSERT INTO employees (first_name, last_name, hire_date, birth_date, nss, curp, department, monthly_salary) " +
+                "VALUES ('Eva', 'Luna', '2020-01-01', '1990-01-01', '11100000003', 'LUME900101MDFNRV03', 'RH', 12000)");
+            // El último id borrado no debe reutilizarse tras reconstruir la tabla
+            stmt.execute("DELETE FROM employees WHERE id = 3");
+        }
+
+        String anterior = Database.getUrl();
+        Database.setUrl(archivo.toString());
+        try {
+            Database.initialize();
+
+            try (Connection conn = Database.connect(); Statement stmt = conn.createStatement()) {
+                try (ResultSet rs = stmt.executeQuery("SELECT type FROM pragma_table_info('employees') " +
+                        "WHERE name IN ('hire_date', 'birth_date')")) {
+                    int columnas = 0;
+                    while (rs.next()) {
+                        assertEquals("INTEGER", rs.getString(1));
+                        columnas++;
+                    }
+                    assertEquals(2, columnas);
+                }
+                try (ResultSet rs = stmt.executeQuery("SELECT seq FROM sqlite_sequence WHERE name = 'employees'")) {
+                    assertTrue(rs.next());
+                    assertEquals(3, rs.getLong(1));
+                }
+            }
+
+            SqliteEmployeeRepository repository = new SqliteEmployeeRepository();
+            Employee ana = repository.findById(1);
+            assertEquals(LocalDate.of(2015, 3, 1), ana.getHireDate());
+            assertEquals(LocalDate.of(1985, 6, 15), ana.getBirthDate());
+            // Fechas anteriores a 1970 quedan como días negativos
+            Employee luis = repository.findById(2);
+            assertEquals(LocalDate.of(1969, 12, 31), luis.getHireDate());
+            assertEquals(LocalDate.of(1960, 2, 29), luis.getBirthDate());
+
+            int nuevo = repository.insert(new Employee("Rosa", "Díaz", null, LocalDate.of(2023, 5, 10),
+                LocalDate.of(1995, 12, 1), "11100000004", "DIGR951201MDFZLS04", "TI", 16000));
+            assertEquals(4, nuevo);
+        } finally {
+            Database.setUrl(anterior);
+        }
+    }
+
+    @Test
+    void testMigracionesHasheanConElCostoCalibrado() throws Exception {
+        // Usuarios del esquema original con contraseña en texto plano
+        Path archivo = tempDir.resolve("nueva.db");
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + archivo);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE users (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "username TEXT UNIQUE NOT NULL," +
+                "password TEXT NOT NULL," +
+                "is_admin BOOLEAN NOT NULL DEFAULT FALSE)");
+            stmt.execute("INSERT INTO users (username, password) VALUES ('operador', 'Secreta1')");
+        }
+
+        String anterior = Database.getUrl();
+        int costoAnterior = PasswordHasher.getCost();
+        // Costo previo al inicio que la calibración no elegiría
+        PasswordHasher.setCost(PasswordHasher.MIN_COST);
+        Database.setUrl(archivo.toString());
+        try {
+            Database.initialize();
+            int costo = PasswordHasher.getCost();
+
+            try (Connection conn = Database.connect(); Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT username, password FROM users")) {
+                int usuarios = 0;
+                while (rs.next()) {
+                    assertEquals(costo, PasswordHasher.getCost(rs.getString("password")), rs.getString("username"));
+                    usuarios++;
+                }
+                assertEquals(2, usuarios);
+            }
+            assertEquals(String.valueOf(costo), Database.getSetting("bcrypt.cost"));
+        } finally {
+            Database.setUrl(anterior);
+            PasswordHasher.setCost(costoAnterior);
+        }
+    }
+
+    @Test
+    void testLeeFechasComoNumeroTextoEnteroOIso() throws Exception {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT 16495 AS numero, '16495' AS texto, " +
+                 "'-1' AS negativo, '2015-03-01' AS iso")) {
+            assertTrue(rs.next());
+            LocalDate esperada = LocalDate.of(2015, 3, 1);
+            assertEquals(esperada, SqliteEmployeeRepository.readDate(rs, "numero"));
+            assertEquals(esperada, SqliteEmployeeRepository.readDate(rs, "texto"));
+            assertEquals(LocalDate.of(1969, 12, 31), SqliteEmployeeRepository.readDate(rs, "negativo"));
+            assertEquals(esperada, SqliteEmployeeRepository.readDate(rs, "iso"));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package models;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Nelo Angelo
+ */
+public class DatabaseProfileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testConexionesDelPoolUsanLosPragmaDelPerfil() throws Exception {
+        String urlAnterior = Database.getUrl();
+        DatabaseProfile perfilAnterior = Database.getProfile();
+        Database.setUrl(tempDir.resolve("perfil.db").toString());
+        try {
+            Database.setProfile(DatabaseProfile.FAST);
+            try (Connection conn = Database.connect()) {
+                assertEquals("wal", pragma(conn, "journal_mode"));
+                assertEquals("1", pragma(conn, "synchronous"));
+                assertEquals("5000", pragma(conn, "busy_timeout"));
+                assertEquals("1", pragma(conn, "foreign_keys"));
+                assertEquals("0", pragma(conn, "query_only"));
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("CREATE TABLE datos (id INTEGER PRIMARY KEY)");
+                }
+            }
+            try (Connection conn = Database.connectReadOnly()) {
+                assertEquals("1", pragma(conn, "query_only"));
+                assertEquals("5000", pragma(conn, "busy_timeout"));
+                try (Statement stmt = conn.createStatement()) {
+                    assertThrows(SQLException.class, () -> stmt.execute("INSERT INTO datos (id) VALUES (1)"));
+                }
+            }
+
+            Database.setProfile(DatabaseProfile.SHARED);
+            try (Connection conn = Database.connect()) {
+                assertEquals("delete", pragma(conn, "journal_mode"));
+                assertEquals("2", pragma(conn, "synchronous"));
+                assertEquals("10000", pragma(conn, "busy_timeout"));
+                assertEquals("0", pragma(conn, "mmap_size"));
+            }
+            try (Connection conn = Database.connectReadOnly()) {
+                assertEquals("1", pragma(conn, "query_only"));
+                assertEquals("10000", pragma(conn, "busy_timeout"));
+            }
+        } finally {
+            Database.setProfile(perfilAnterior);
+            Database.setUrl(urlAnterior);
+        }
+    }
+
+    @Test
+    void testBuscaPerfilesPorNombre() {
+        assertSame(DatabaseProfile.DURABLE, DatabaseProfile.fromName("durable"));
+        assertSame(DatabaseProfile.FAST, DatabaseProfile.fromName(" FAST "));
+        assertSame(DatabaseProfile.SHARED, DatabaseProfile.fromName("Shared"));
+        assertThrows(IllegalArgumentException.class, () -> DatabaseProfile.fromName("turbo"));
+        assertThrows(IllegalArgumentException.class,
+            () -> new DatabaseProfile("malo", "WAL; DROP TABLE users", "FULL", -8000, 0, "DEFAULT", 5000));
+    }
+
+    private static String pragma(Connection conn, String name) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA " + name)) {
+            assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+}
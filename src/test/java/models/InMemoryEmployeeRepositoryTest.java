@@ -0,0 +1,114 @@
+package models;
+
+import controllers.AuthController;
+import controllers.EmployeeController;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Nelo Angelo
+ */
+public class InMemoryEmployeeRepositoryTest {
+
+    private static Employee empleado(String nombre, String apellido, String nss, String curp) {
+        return new Employee(nombre, apellido, "Lozano", LocalDate.of(2015, 3, 1), LocalDate.of(1985, 6, 15),
+                nss, curp, "Contabilidad", 15000.0);
+    }
+
+    @Test
+    void testDuplicadosYCopias() {
+        EmployeeController controller = new EmployeeController(new InMemoryEmployeeRepository());
+        Employee ana = empleado("Ana", "Ramírez", "10000000001", "RALA850615MDFMZN01");
+        assertTrue(controller.addEmployee(ana));
+        assertTrue(ana.getId() > 0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> controller.addEmployee(empleado("Otra", "Persona", "10000000001", "PEXO850615MDFMZN02")));
+        assertThrows(IllegalArgumentException.class,
+                () -> controller.addEmployee(empleado("Otra", "Persona", "10000000002", "RALA850615MDFMZN01")));
+
+        // Modificar el objeto devuelto no altera el almacenamiento
+        Employee leido = controller.getEmployeeById(ana.getId());
+        leido.setDepartment("Ventas");
+        assertEquals("Contabilidad", controller.getEmployeeById(ana.getId()).getDepartment());
+
+        assertTrue(controller.updateEmployee(leido));
+        assertEquals("Ventas", controller.getEmployeeById(ana.getId()).getDepartment());
+        assertTrue(controller.nssExists("10000000001"));
+        assertTrue(controller.deleteEmployee(ana.getId()));
+        assertFalse(controller.nssExists("10000000001"));
+    }
+
+    @Test
+    void testOrdenPaginasYBusquedaSinAcentos() {
+        EmployeeController controller = new EmployeeController(new InMemoryEmployeeRepository());
+        controller.addEmployee(empleado("Carlos", "Zamora", "20000000001", "ZACA850615HDFMRR01"));
+        controller.addEmployee(empleado("Ana", "Ramírez", "20000000002", "RAAA850615MDFMZN02"));
+        controller.addEmployee(empleado("Beto", "Ramírez", "20000000003", "RABE850615HDFMZT03"));
+
+        List<Employee> primera = controller.getEmployeesPage(null, null, 0, 2);
+        assertEquals(List.of("Ana", "Beto"), primera.stream().map(Employee::getFirstName).toList());
+        List<Employee> segunda = controller.getEmployeesPageAfter(primera.get(1), 2);
+        assertEquals(1, segunda.size());
+        assertEquals("Carlos", segunda.get(0).getFirstName());
+
+        assertEquals(2, controller.searchEmployees("rami", 10).size());
+        assertEquals(1, controller.searchEmployees("RAMIREZ be", 10).size());
+        assertTrue(controller.searchEmployees("   ", 10).isEmpty());
+
+        long secuencia = controller.getLatestChangeSequence();
+        assertFalse(controller.getChangesSince(secuencia).isFullReloadRequired());
+        controller.deleteEmployee(segunda.get(0).getId());
+        assertTrue(controller.getChangesSince(secuencia).isFullReloadRequired());
+    }
+
+    @Test
+    void testCamposNulosYActualizacionesConcurrentes() throws Exception {
+        InMemoryEmployeeRepository repository = new InMemoryEmployeeRepository();
+        // Sin apellido materno ni departamento: no se indexa la palabra "null"
+        int id = repository.insert(new Employee("Dora", "Nuñez", null, LocalDate.of(2015, 3, 1),
+                LocalDate.of(1985, 6, 15), "30000000001", "NUDO850615MDFXRR01", null, 15000.0));
+        assertTrue(repository.search("null", 10).isEmpty());
+        assertEquals(1, repository.search("nuñez", 10).size());
+
+        // Un lector nunca debe dejar de ver al empleado mientras otro hilo lo actualiza
+        Thread escritor = new Thread(() -> {
+            for (int i = 0; i < 2000; i++) {
+                repository.update(new Employee(id, "Dora", i % 2 == 0 ? "Nuñez" : "Ochoa", null,
+                        LocalDate.of(2015, 3, 1), LocalDate.of(1985, 6, 15), "30000000001",
+                        "NUDO850615MDFXRR01", null, 15000.0));
+            }
+        });
+        escritor.start();
+        int perdidos = 0;
+        while (escritor.isAlive()) {
+            if (repository.findById(id) == null || repository.findAll().size() != 1
+                    || !repository.existsByNss("30000000001")) {
+                perdidos++;
+            }
+        }
+        escritor.join();
+        assertEquals(0, perdidos);
+    }
+
+    @Test
+    void testUsuariosEnMemoria() {
+        AuthController auth = new AuthController(new InMemoryUserRepository());
+        User admin = auth.authenticate("admin", "Admin");
+        assertNotNull(admin);
+        assertNull(auth.authenticate("admin", "incorrecta"));
+
+        assertTrue(auth.createUser("operador", "Secreta1", false));
+        assertFalse(auth.createUser("operador", "Otra", false));
+        assertNotNull(auth.authenticate("operador", "Secreta1"));
+
+        // El último administrador no se puede eliminar
+        assertFalse(auth.deleteUser(admin.getId()));
+        assertEquals(2, auth.getAllUsers().size());
+    }
+}
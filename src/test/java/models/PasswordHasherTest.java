@@ -0,0 +1,58 @@
+package models;
+
+import controllers.AuthController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Nelo Angelo
+ */
+public class PasswordHasherTest {
+
+    @AfterEach
+    void restaurarCosto() {
+        PasswordHasher.setCost(PasswordHasher.DEFAULT_COST);
+    }
+
+    @Test
+    void testCostoDelHashYCalibracion() {
+        PasswordHasher.setCost(5);
+        String hash = PasswordHasher.hash("secreta");
+        assertEquals(5, PasswordHasher.getCost(hash));
+        assertTrue(PasswordHasher.verify("secreta", hash));
+        assertFalse(PasswordHasher.needsRehash(hash));
+        assertEquals(-1, PasswordHasher.getCost("texto plano"));
+        assertThrows(IllegalArgumentException.class, () -> PasswordHasher.setCost(3));
+
+        // Un objetivo de 1 ms no alcanza para subir del mínimo
+        assertEquals(PasswordHasher.MIN_COST, PasswordHasher.calibrate(1));
+    }
+
+    @Test
+    void testRehashAlIniciarSesionConOtroCosto() {
+        InMemoryUserRepository users = new InMemoryUserRepository();
+        AuthController auth = new AuthController(users);
+        PasswordHasher.setCost(4);
+        assertTrue(auth.createUser("operador", "Secreta1", false));
+        assertEquals(4, PasswordHasher.getCost(users.findByUsername("operador").getPassword()));
+
+        PasswordHasher.setCost(5);
+        assertNotNull(auth.authenticate("operador", "Secreta1"));
+        assertEquals(5, PasswordHasher.getCost(users.findByUsername("operador").getPassword()));
+        // Una contraseña incorrecta no cambia el hash
+        assertNull(auth.authenticate("operador", "otra"));
+        assertNotNull(auth.authenticate("operador", "Secreta1"));
+    }
+
+    @Test
+    void testConfiguracionGuardada() {
+        String clave = "prueba.clave." + System.nanoTime();
+        assertNull(Database.getSetting(clave));
+        Database.putSetting(clave, "1");
+        Database.putSetting(clave, "2");
+        assertEquals("2", Database.getSetting(clave));
+    }
+}
@@ -0,0 +1,74 @@
+package models;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Nelo Angelo
+ */
+public class PasswordMigratorTest {
+
+    @AfterEach
+    void limpiar() throws SQLException {
+        PasswordHasher.setCost(PasswordHasher.DEFAULT_COST);
+        try (Connection conn = Database.connect(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM users WHERE username LIKE 'junit_mig_%'");
+        }
+    }
+
+    @Test
+    void testMigracionParalelaPorLotes() throws SQLException {
+        PasswordHasher.setCost(4);
+        try (Connection conn = Database.connect();
+             PreparedStatement pstmt = conn.prepareStatement(
+                 "INSERT INTO users (username, password, is_admin) VALUES (?, ?, FALSE)")) {
+            for (int i = 0; i < 30; i++) {
+                pstmt.setString(1, "junit_mig_" + i);
+                pstmt.setString(2, "clave" + i);
+                pstmt.executeUpdate();
+            }
+        }
+
+        List<Integer> avance = new ArrayList<>();
+        PasswordMigrator.MigrationResult result;
+        try (Connection conn = Database.connect()) {
+            result = new PasswordMigrator(3, 8).migrate(conn, (migrated, total, rate) -> avance.add(migrated));
+            assertTrue(conn.getAutoCommit());
+        }
+
+        assertTrue(result.getRows() >= 30);
+        assertTrue(result.getRowsPerSecond() > 0);
+        // Un aviso por lote de 8, el último con el total
+        assertEquals((result.getRows() + 7) / 8, avance.size());
+        assertEquals(result.getRows(), avance.get(avance.size() - 1));
+
+        try (Connection conn = Database.connect();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                 "SELECT username, password FROM users WHERE username LIKE 'junit_mig_%'")) {
+            int rows = 0;
+            while (rs.next()) {
+                String indice = rs.getString("username").substring("junit_mig_".length());
+                assertTrue(PasswordHasher.verify("clave" + indice, rs.getString("password")));
+                rows++;
+            }
+            assertEquals(30, rows);
+        }
+
+        // Sin contraseñas pendientes no hay nada que hacer
+        try (Connection conn = Database.connect()) {
+            assertEquals(0, new PasswordMigrator().migrate(conn, null).getRows());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package models;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Nelo Angelo
+ */
+public class RetryPolicyTest {
+
+    @Test
+    void testReintentaBloqueosYCuentaEventos() throws SQLException {
+        RetryPolicy policy = new RetryPolicy(4, 1, 4);
+        AtomicInteger intentos = new AtomicInteger();
+
+        String resultado = policy.execute(() -> {
+            if (intentos.incrementAndGet() < 3) {
+                throw new SQLException("[SQLITE_BUSY] The database file is locked", null, 5);
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", resultado);
+        assertEquals(3, intentos.get());
+        RetryPolicy.Stats stats = policy.getStats();
+        assertEquals(2, stats.getBusyEvents());
+        assertEquals(2, stats.getRetries());
+        assertEquals(0, stats.getFailures());
+    }
+
+    @Test
+    void testNoReintentaOtrosErroresYAgotaIntentos() {
+        RetryPolicy policy = new RetryPolicy(2, 0, 0);
+        AtomicInteger intentos = new AtomicInteger();
+
+        // Una violación de restricción no es un bloqueo: falla de inmediato
+        assertThrows(SQLException.class, () -> policy.execute(() -> {
+            intentos.incrementAndGet();
+            throw new SQLException("[SQLITE_CONSTRAINT] UNIQUE constraint failed", null, 19);
+        }));
+        assertEquals(1, intentos.get());
+
+        // SQLITE_LOCKED extendido (262 = 6 | 1 << 8) se reintenta hasta el máximo
+        intentos.set(0);
+        assertThrows(SQLException.class, () -> policy.execute(() -> {
+            intentos.incrementAndGet();
+            throw new SQLException("tabla bloqueada", null, 262);
+        }));
+        assertEquals(2, intentos.get());
+        assertEquals(1, policy.getStats().getFailures());
+        assertThrows(IllegalArgumentException.class, () -> new RetryPolicy(0, 1, 1));
+    }
+}
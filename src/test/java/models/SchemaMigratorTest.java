@@ -0,0 +1,93 @@
+package models;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Nelo Angelo
+ */
+public class SchemaMigratorTest {
+
+    private Connection conn;
+
+    @BeforeEach
+    void abrirConexion() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+    }
+
+    @AfterEach
+    void cerrarConexion() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void testAplicaMigracionesEnOrdenYGuardaVersion() throws SQLException {
+        List<Integer> aplicadas = new ArrayList<>();
+        SchemaMigrator migrator = new SchemaMigrator()
+            .add(1, "uno", c -> aplicadas.add(1))
+            .add(2, "dos", c -> aplicadas.add(2));
+
+        assertEquals(2, migrator.migrate(conn));
+        assertEquals(List.of(1, 2), aplicadas);
+        assertEquals(2, SchemaMigrator.getUserVersion(conn));
+
+        // Con el esquema al día no se ejecuta nada
+        assertEquals(0, migrator.migrate(conn));
+        assertEquals(List.of(1, 2), aplicadas);
+    }
+
+    @Test
+    void testSoloAplicaMigracionesPendientes() throws SQLException {
+        List<Integer> aplicadas = new ArrayList<>();
+        new SchemaMigrator().add(1, "uno", c -> aplicadas.add(1)).migrate(conn);
+
+        new SchemaMigrator()
+            .add(1, "uno", c -> aplicadas.add(1))
+            .add(2, "dos", c -> aplicadas.add(2))
+            .migrate(conn);
+
+        assertEquals(List.of(1, 2), aplicadas);
+    }
+
+    @Test
+    void testMigracionFallidaSeRevierte() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator()
+            .add(1, "tabla", c -> {
+                try (Statement stmt = c.createStatement()) {
+                    stmt.execute("CREATE TABLE prueba (id INTEGER)");
+                }
+            })
+            .add(2, "falla", c -> {
+                try (Statement stmt = c.createStatement()) {
+                    stmt.execute("INSERT INTO prueba VALUES (1)");
+                    stmt.execute("INSERT INTO tabla_inexistente VALUES (1)");
+                }
+            });
+
+        assertThrows(SQLException.class, () -> migrator.migrate(conn));
+        assertEquals(1, SchemaMigrator.getUserVersion(conn));
+        assertTrue(conn.getAutoCommit());
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM prueba")) {
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void testRechazaVersionesNoCrecientes() {
+        SchemaMigrator migrator = new SchemaMigrator().add(2, "dos", c -> { });
+        assertThrows(IllegalArgumentException.class, () -> migrator.add(2, "repetida", c -> { }));
+    }
+}